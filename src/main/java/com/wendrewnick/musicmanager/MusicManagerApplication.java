@@ -37,11 +37,15 @@ public class MusicManagerApplication {
                 System.out.println("=================================================");
             } else {
                 var admin = adminUser.get();
-                admin.setPassword(passwordEncoder.encode("admin"));
-                userRepository.save(admin);
-                System.out.println("=================================================");
-                System.out.println(" ADMIN PASSWORD RESET TO: admin");
-                System.out.println("=================================================");
+                if (!passwordEncoder.matches("admin", admin.getPassword())) {
+                    // Senha trocada: tokens emitidos com a senha anterior deixam de valer
+                    admin.setPassword(passwordEncoder.encode("admin"));
+                    admin.setTokenVersion(admin.getTokenVersion() + 1);
+                    userRepository.save(admin);
+                    System.out.println("=================================================");
+                    System.out.println(" ADMIN PASSWORD RESET TO: admin");
+                    System.out.println("=================================================");
+                }
             }
         };
     }
@@ -0,0 +1,44 @@
+package com.wendrewnick.musicmanager.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.service.AlbumBroadcaster;
+import com.wendrewnick.musicmanager.service.LocalAlbumBroadcaster;
+import com.wendrewnick.musicmanager.service.PostgresAlbumBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class AlbumBroadcasterConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "postgresql")
+    public AlbumBroadcaster postgresAlbumBroadcaster(
+            DataSource dataSource,
+            SimpMessagingTemplate messagingTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.url}") String jdbcUrl,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${websocket.broker.postgresql.reconnect-ms:5000}") long reconnectMs) {
+        PostgresAlbumBroadcaster broadcaster = new PostgresAlbumBroadcaster(dataSource, jdbcUrl, username, password,
+                messagingTemplate, objectMapper, meterRegistry, Duration.ofMillis(reconnectMs));
+        broadcaster.start();
+        return broadcaster;
+    }
+
+    // simple: só esta réplica; relay: o broker externo já entrega a todas as réplicas
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean(AlbumBroadcaster.class)
+    public AlbumBroadcaster localAlbumBroadcaster(SimpMessagingTemplate messagingTemplate) {
+        return new LocalAlbumBroadcaster(messagingTemplate);
+    }
+}
@@ -16,7 +16,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
                 +
                 "### WebSocket\n" +
                 "- **Topic:** `/topic/albums`\n" +
-                "- **Descrição:** Notifica clientes em tempo real quando um novo álbum é criado.", contact = @Contact(name = "Wendrew Nick Costa Tatehira", email = "nickdebian@outlook.com")), servers = {
+                "- **Descrição:** Notifica clientes quando álbuns são criados, alterados ou excluídos. Cada mensagem é um array de eventos `{type: CREATED|UPDATED|DELETED, id, version, changes}`, com só os campos alterados; URLs de capa ficam em `GET /api/v1/albums/{id}/covers`.", contact = @Contact(name = "Wendrew Nick Costa Tatehira", email = "nickdebian@outlook.com")), servers = {
                                 @Server(url = "/", description = "Default Server URL") }, tags = {
                                                 @Tag(name = "Autenticação", description = "Endpoints para Login e atualização de Token"),
                                                 @Tag(name = "Artistas", description = "Endpoints para gerenciamento de Artistas"),
@@ -0,0 +1,44 @@
+package com.wendrewnick.musicmanager.config;
+
+import com.wendrewnick.musicmanager.security.LocalBucketStore;
+import com.wendrewnick.musicmanager.security.PostgresBucketStore;
+import com.wendrewnick.musicmanager.security.RateLimitBucketStore;
+import com.wendrewnick.musicmanager.security.RateLimitTierProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitTierProperties.class)
+public class RateLimitStoreConfig {
+
+    @Value("${rate-limit.buckets.max-size:100000}")
+    private long maxBuckets;
+
+    @Value("${rate-limit.buckets.idle-minutes:10}")
+    private long idleMinutes;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "rate-limit.store", havingValue = "local", matchIfMissing = true)
+    public RateLimitBucketStore localBucketStore(MeterRegistry meterRegistry) {
+        return new LocalBucketStore(meterRegistry, "rate-limit.buckets", maxBuckets, Duration.ofMinutes(idleMinutes));
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "rate-limit.store", havingValue = "postgresql")
+    public RateLimitBucketStore postgresBucketStore(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.postgresql.max-unsynchronized-tokens:2}") long maxUnsynchronizedTokens,
+            @Value("${rate-limit.postgresql.max-unsynchronized-ms:1000}") long maxUnsynchronizedMs,
+            @Value("${rate-limit.postgresql.retry-after-ms:30000}") long retryAfterMs) {
+        return new PostgresBucketStore(dataSource, meterRegistry, maxBuckets, Duration.ofMinutes(idleMinutes), maxUnsynchronizedTokens,
+                Duration.ofMillis(maxUnsynchronizedMs), Duration.ofMillis(retryAfterMs));
+    }
+}
@@ -2,23 +2,37 @@ package com.wendrewnick.musicmanager.controller;
 
 import com.wendrewnick.musicmanager.dto.ApiResponse;
 import com.wendrewnick.musicmanager.dto.AlbumDTO;
+import com.wendrewnick.musicmanager.dto.AlbumImportResultDTO;
+import com.wendrewnick.musicmanager.dto.CoverCommitRequestDTO;
+import com.wendrewnick.musicmanager.dto.CoverUploadRequestDTO;
+import com.wendrewnick.musicmanager.dto.CoverUploadUrlDTO;
+import com.wendrewnick.musicmanager.dto.CursorPageDTO;
+import com.wendrewnick.musicmanager.exception.BusinessException;
+import com.wendrewnick.musicmanager.service.AlbumExportService;
+import com.wendrewnick.musicmanager.service.AlbumImportService;
 import com.wendrewnick.musicmanager.service.AlbumService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -31,6 +45,14 @@ import java.util.UUID;
 public class AlbumController {
 
     private final AlbumService albumService;
+    private final AlbumExportService albumExportService;
+    private final AlbumImportService albumImportService;
+
+    @Value("${albums.import.chunk-size:500}")
+    private int defaultImportChunkSize;
+
+    @Value("${albums.import.max-chunk-size:5000}")
+    private int maxImportChunkSize;
 
     @Operation(summary = "Listar álbuns", description = "Paginação. Filtros: title, artistName, soloOrBand (true=band, false=solo).")
     @GetMapping
@@ -43,6 +65,48 @@ public class AlbumController {
         return ResponseEntity.ok(ApiResponse.success(page, "Álbuns listados com sucesso"));
     }
 
+    @Operation(summary = "Listar álbuns por cursor",
+            description = "Paginação por keyset, sem contagem total. Ordenação: title, year ou createdAt (default: title,asc). "
+                    + "Para a próxima página envie o nextCursor em 'after' com os mesmos filtros; a ordenação vem do cursor.")
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageDTO<AlbumDTO>>> getAlbumsByCursor(
+            @Parameter(description = "Filtrar por título") @RequestParam(required = false) String title,
+            @Parameter(description = "Filtrar por nome do artista") @RequestParam(required = false) String artistName,
+            @Parameter(description = "true = bandas, false = artistas solo") @RequestParam(required = false) Boolean soloOrBand,
+            @Parameter(description = "Cursor opaco (nextCursor da página anterior)") @RequestParam(required = false) String after,
+            @Parameter(description = "Itens por página (1 a 100)") @RequestParam(defaultValue = "20") int size,
+            @SortDefault(sort = "title") Sort sort) {
+        CursorPageDTO<AlbumDTO> page = albumService.findAllByCursor(title, artistName, soloOrBand, after, size, sort);
+        return ResponseEntity.ok(ApiResponse.success(page, "Álbuns listados com sucesso"));
+    }
+
+    @Operation(summary = "Exportar catálogo de álbuns",
+            description = "Todos os álbuns em NDJSON (um JSON por linha) com nomes dos artistas e chaves das capas. "
+                    + "A resposta é escrita em streaming enquanto o banco é lido.")
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportAlbums(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        albumExportService.exportNdjson(response.getOutputStream());
+    }
+
+    @Operation(summary = "Importar álbuns em lote",
+            description = "Corpo em NDJSON (um álbum por linha) ou array JSON, lido em streaming. Cada álbum: title, year, "
+                    + "artistIds e/ou artistNames (artistas já cadastrados) e coverKeys opcionais; o formato de /export é aceito. "
+                    + "Gravação em lotes de chunkSize, cada um numa transação; o resultado traz o que foi gravado e os erros por lote.")
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ApiResponse<AlbumImportResultDTO>> importAlbums(
+            @Parameter(description = "Álbuns por lote (1 a 5000, default 500)") @RequestParam(required = false) Integer chunkSize,
+            InputStream body) {
+        int size = chunkSize != null ? chunkSize : defaultImportChunkSize;
+        if (size < 1 || size > maxImportChunkSize) {
+            throw new BusinessException(
+                    "chunkSize deve estar entre 1 e " + maxImportChunkSize + ".");
+        }
+        AlbumImportResultDTO result = albumImportService.importAlbums(body, size);
+        return ResponseEntity.ok(ApiResponse.success(result, "Importação concluída"));
+    }
+
     @Operation(summary = "Buscar álbum por ID")
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<AlbumDTO>> getAlbumById(@PathVariable UUID id) {
@@ -74,21 +138,21 @@ public class AlbumController {
                     .map(UUID::fromString)
                     .toList();
         } catch (IllegalArgumentException e) {
-            throw new com.wendrewnick.musicmanager.exception.BusinessException(
+            throw new BusinessException(
                     "artistIds inválido: use UUIDs separados por vírgula (ex: a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a01). " + e.getMessage());
         }
         if (artistIdList.isEmpty()) {
-            throw new com.wendrewnick.musicmanager.exception.BusinessException("Pelo menos um artista (artistIds) é obrigatório.");
+            throw new BusinessException("Pelo menos um artista (artistIds) é obrigatório.");
         }
 
         int year;
         try {
             year = Integer.parseInt(yearStr.trim());
         } catch (NumberFormatException e) {
-            throw new com.wendrewnick.musicmanager.exception.BusinessException("Ano inválido: " + yearStr + ". Use um número (ex: 2024).");
+            throw new BusinessException("Ano inválido: " + yearStr + ". Use um número (ex: 2024).");
         }
         if (year < 1900) {
-            throw new com.wendrewnick.musicmanager.exception.BusinessException("Ano deve ser maior ou igual a 1900.");
+            throw new BusinessException("Ano deve ser maior ou igual a 1900.");
         }
 
         AlbumDTO albumDTO = AlbumDTO.builder()
@@ -125,6 +189,27 @@ public class AlbumController {
         return ResponseEntity.ok(ApiResponse.success(null, "Capas adicionadas"));
     }
 
+    @Operation(summary = "Gerar URLs de upload direto de capas",
+            description = "Fase 1: retorna uma URL pré-assinada de PUT (15min) e a chave de cada arquivo. "
+                    + "Envie os bytes direto ao MinIO com Content-Type de imagem e depois confirme em /covers/commit.")
+    @PostMapping(value = "/{id}/covers/upload-urls", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<CoverUploadUrlDTO>>> createCoverUploadUrls(
+            @PathVariable UUID id,
+            @Valid @RequestBody CoverUploadRequestDTO request) {
+        List<CoverUploadUrlDTO> urls = albumService.createCoverUploadUrls(id, request.getFileNames());
+        return ResponseEntity.ok(ApiResponse.success(urls, "URLs de upload geradas"));
+    }
+
+    @Operation(summary = "Confirmar capas enviadas direto ao MinIO",
+            description = "Fase 2: valida tamanho (até 5MB) e tipo (image/*) de cada chave no MinIO e associa ao álbum.")
+    @PostMapping(value = "/{id}/covers/commit", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<Void>> commitCovers(
+            @PathVariable UUID id,
+            @Valid @RequestBody CoverCommitRequestDTO request) {
+        albumService.commitCovers(id, request.getKeys());
+        return ResponseEntity.ok(ApiResponse.success(null, "Capas adicionadas"));
+    }
+
     @Operation(summary = "Obter URLs das capas", description = "Retorna URLs pré-assinadas (30min)")
     @GetMapping("/{id}/covers")
     public ResponseEntity<ApiResponse<List<String>>> getCoverUrls(@PathVariable UUID id) {
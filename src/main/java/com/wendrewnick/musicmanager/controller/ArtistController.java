@@ -2,6 +2,7 @@ package com.wendrewnick.musicmanager.controller;
 
 import com.wendrewnick.musicmanager.dto.ApiResponse;
 import com.wendrewnick.musicmanager.dto.ArtistDTO;
+import com.wendrewnick.musicmanager.dto.CursorPageDTO;
 import com.wendrewnick.musicmanager.service.ArtistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -12,6 +13,8 @@ import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.SortDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +39,19 @@ public class ArtistController {
         return ResponseEntity.ok(ApiResponse.success(page, "Artistas listados com sucesso"));
     }
 
+    @Operation(summary = "Listar artistas por cursor",
+            description = "Paginação por keyset, sem contagem total. Ordenação: name ou createdAt (default: name,asc). "
+                    + "Para a próxima página envie o nextCursor em 'after' com o mesmo filtro; a ordenação vem do cursor.")
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageDTO<ArtistDTO>>> getArtistsByCursor(
+            @Parameter(description = "Filtrar por nome") @RequestParam(required = false) String name,
+            @Parameter(description = "Cursor opaco (nextCursor da página anterior)") @RequestParam(required = false) String after,
+            @Parameter(description = "Itens por página (1 a 100)") @RequestParam(defaultValue = "20") int size,
+            @SortDefault(sort = "name") Sort sort) {
+        CursorPageDTO<ArtistDTO> page = artistService.findAllByCursor(name, after, size, sort);
+        return ResponseEntity.ok(ApiResponse.success(page, "Artistas listados com sucesso"));
+    }
+
     @Operation(summary = "Buscar artista por ID")
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<ArtistDTO>> getArtistById(@PathVariable UUID id) {
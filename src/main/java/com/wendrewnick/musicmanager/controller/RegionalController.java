@@ -3,6 +3,7 @@ package com.wendrewnick.musicmanager.controller;
 import com.wendrewnick.musicmanager.dto.ApiResponse;
 import com.wendrewnick.musicmanager.dto.RegionalResponseDTO;
 import com.wendrewnick.musicmanager.service.RegionalService;
+import com.wendrewnick.musicmanager.service.RegionalSnapshot;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -13,6 +14,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -30,15 +32,17 @@ public class RegionalController {
     public ResponseEntity<ApiResponse<List<RegionalResponseDTO>>> findAll(
             @Parameter(description = "Filtrar por nome") @RequestParam(required = false) String nome,
             @Parameter(description = "Filtrar por ID da regional") @RequestParam(required = false) Integer id,
-            @Parameter(description = "Filtrar por status (true = ativo, false = inativo)") @RequestParam(required = false) Boolean ativo) {
-        
-        List<RegionalResponseDTO> list = regionalService.findWithFilters(nome, id, ativo).stream()
-                .map(r -> RegionalResponseDTO.builder()
-                        .id(r.getRegionalId())
-                        .nome(r.getNome())
-                        .ativo(r.isAtivo())
-                        .build())
-                .toList();
-        return ResponseEntity.ok(ApiResponse.success(list, "Regionais listadas com sucesso"));
+            @Parameter(description = "Filtrar por status (true = ativo, false = inativo)") @RequestParam(required = false) Boolean ativo,
+            WebRequest webRequest) {
+
+        // Lido do snapshot em memória: nenhum acesso ao banco; If-None-Match igual ao ETag responde 304
+        RegionalSnapshot snapshot = regionalService.snapshot();
+        if (webRequest.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        List<RegionalResponseDTO> list = snapshot.find(nome, id, ativo);
+        return ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .body(ApiResponse.success(list, "Regionais listadas com sucesso"));
     }
 }
@@ -0,0 +1,58 @@
+package com.wendrewnick.musicmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Evento publicado em /topic/albums. Leva só o que mudou: {@code changes} contém os campos alterados
+ * ({@code title}, {@code year}, {@code artistIds}, {@code coverCount}); URLs de capa não vão no evento e são
+ * obtidas sob demanda em GET /api/v1/albums/{id}/covers. {@code version} cresce a cada alteração do álbum,
+ * então o cliente descarta eventos mais antigos que o estado que já tem. DELETED leva a versão que a exclusão
+ * conferiu, igual à do último CREATED/UPDATED; como é terminal, vale sempre que não for menor que a do cliente.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class AlbumChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private Type type;
+    private UUID id;
+    private Long version;
+    private Map<String, Object> changes;
+
+    /**
+     * Combina dois eventos do mesmo álbum no mesmo lote: criado e depois alterado continua criado, com os campos
+     * somados; qualquer evento seguido de exclusão vira só a exclusão.
+     */
+    public AlbumChangeEvent mergedWith(AlbumChangeEvent later) {
+        if (later.getType() == Type.DELETED) {
+            return later;
+        }
+        Map<String, Object> merged = new LinkedHashMap<>();
+        if (changes != null) {
+            merged.putAll(changes);
+        }
+        if (later.getChanges() != null) {
+            merged.putAll(later.getChanges());
+        }
+        return AlbumChangeEvent.builder()
+                .type(type == Type.CREATED ? Type.CREATED : later.getType())
+                .id(id)
+                .version(later.getVersion())
+                .changes(merged)
+                .build();
+    }
+}
@@ -11,6 +11,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -35,4 +36,7 @@ public class AlbumDTO {
 
     private List<String> artistNames;
     private List<String> coverUrls;
+
+    // Lado máximo da miniatura (px) -> URLs, na mesma ordem de coverUrls
+    private Map<Integer, List<String>> thumbnailUrls;
 }
@@ -0,0 +1,50 @@
+package com.wendrewnick.musicmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Um álbum da importação em lote. Artistas por id e/ou por nome (sem diferenciar maiúsculas), como na linha
+ * exportada por GET /api/v1/albums/export; campos desconhecidos (ex.: id) são ignorados. Título e ano seguem
+ * as mesmas regras de {@link AlbumDTO}.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlbumImportDTO {
+
+    @NotBlank(message = "O título é obrigatório")
+    @Size(min = 2, max = 100, message = "O título deve ter entre 2 e 100 caracteres")
+    private String title;
+
+    @NotNull(message = "O ano é obrigatório")
+    @Min(value = 1900, message = "O ano deve ser válido")
+    private Integer year;
+
+    private List<UUID> artistIds;
+    private List<String> artistNames;
+
+    // Só capas endereçadas por conteúdo: a chave vem do upload, nunca de um caminho arbitrário no bucket
+    private List<@NotNull(message = "Chave de capa inválida")
+            @Pattern(regexp = "covers/sha256/[0-9a-f]{64}", message = "Chave de capa inválida: use as chaves covers/sha256/ geradas no upload")
+            String> coverKeys;
+
+    @JsonIgnore
+    @AssertTrue(message = "Pelo menos um artista (artistIds ou artistNames) é obrigatório")
+    public boolean isArtistInformed() {
+        return (artistIds != null && !artistIds.isEmpty()) || (artistNames != null && !artistNames.isEmpty());
+    }
+}
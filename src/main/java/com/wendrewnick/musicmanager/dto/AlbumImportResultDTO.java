@@ -0,0 +1,48 @@
+package com.wendrewnick.musicmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlbumImportResultDTO {
+    private int received;
+    private int imported;
+    private int failed;
+    private List<Chunk> chunks;
+    // Preenchido quando a leitura parou antes do fim (JSON inválido); os lotes anteriores já foram gravados
+    private String error;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    public static class Chunk {
+        private int index;
+        private int received;
+        private int imported;
+        private long elapsedMs;
+        private List<Failure> failures;
+        // Preenchido quando o lote inteiro foi desfeito (erro do banco); todos os seus álbuns contam como falha
+        private String error;
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Failure {
+        // Posição do álbum na entrada, a partir de 0
+        private int position;
+        private String message;
+    }
+}
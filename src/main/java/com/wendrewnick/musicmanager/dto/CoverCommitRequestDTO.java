@@ -0,0 +1,22 @@
+package com.wendrewnick.musicmanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CoverCommitRequestDTO {
+
+    @NotEmpty(message = "Informe ao menos uma chave")
+    @Size(max = 10, message = "No máximo 10 chaves por requisição")
+    private List<@NotBlank(message = "A chave é obrigatória") String> keys;
+}
@@ -0,0 +1,22 @@
+package com.wendrewnick.musicmanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CoverUploadRequestDTO {
+
+    @NotEmpty(message = "Informe ao menos um arquivo")
+    @Size(max = 10, message = "No máximo 10 arquivos por requisição")
+    private List<@NotBlank(message = "O nome do arquivo é obrigatório") String> fileNames;
+}
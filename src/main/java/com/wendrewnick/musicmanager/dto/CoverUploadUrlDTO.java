@@ -0,0 +1,15 @@
+package com.wendrewnick.musicmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class CoverUploadUrlDTO {
+    private String fileName;
+    private String key;
+    private String uploadUrl;
+    private Instant expiresAt;
+}
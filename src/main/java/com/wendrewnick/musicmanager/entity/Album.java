@@ -22,7 +22,7 @@ import lombok.ToString;
 public class Album extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
@@ -31,6 +31,9 @@ public class Album extends BaseEntity {
     @Column(name = "release_year")
     private Integer year;
 
+    @Version
+    private Long version;
+
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "album_images", joinColumns = @JoinColumn(name = "album_id"))
     @Column(name = "image_key")
@@ -22,7 +22,7 @@ import lombok.ToString;
 public class Artist extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
     @Column(nullable = false)
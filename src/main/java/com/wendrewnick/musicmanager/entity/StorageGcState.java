@@ -0,0 +1,33 @@
+package com.wendrewnick.musicmanager.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "storage_gc_state")
+public class StorageGcState {
+
+    @Id
+    private String name;
+
+    @Column(name = "resume_after")
+    private String resumeAfter;
+
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    @Column(name = "locked_until", nullable = false)
+    private Instant lockedUntil;
+}
@@ -0,0 +1,19 @@
+package com.wendrewnick.musicmanager.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Chave primária UUID gerada por {@link UuidV7Generator}: versão 7 (RFC 9562), ordenada pelo tempo de criação.
+ * Substitui {@code @GeneratedValue(strategy = GenerationType.UUID)}; a coluna continua {@code UUID}, então
+ * os ids v4 já gravados seguem válidos.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,79 @@
+package com.wendrewnick.musicmanager.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Gera UUIDv7: 48 bits de timestamp Unix em ms, 12 bits de contador e 62 bits aleatórios.
+ * <p>
+ * Ids v4 são aleatórios e espalham os INSERTs por todo o B-tree da chave primária (e de album_artists),
+ * com page splits e índices inchados sob carga de escrita. Com v7 os ids novos caem sempre no fim do índice.
+ * O contador (método 1 da RFC 9562, seção 6.2) garante ordem estrita dentro da JVM mesmo com vários ids no
+ * mesmo milissegundo ou com o relógio voltando: nesses casos o contador avança e, se estourar, o timestamp
+ * é adiantado em 1 ms.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_MAX = (1 << COUNTER_BITS) - 1;
+
+    // Compartilhado por todas as entidades: ordem única na JVM
+    private static final Sequence SEQUENCE = new Sequence();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        return SEQUENCE.next(System.currentTimeMillis());
+    }
+
+    /**
+     * Milissegundos Unix embutidos num UUIDv7.
+     */
+    public static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    static final class Sequence {
+
+        private long lastMillis = -1;
+        private int counter;
+
+        UUID next(long now) {
+            long millis;
+            int sequence;
+            synchronized (this) {
+                if (now > lastMillis) {
+                    lastMillis = now;
+                    // Começa na metade de baixo: sobra espaço para incrementos no mesmo ms
+                    counter = RANDOM.nextInt(1 << (COUNTER_BITS - 1));
+                } else if (counter < COUNTER_MAX) {
+                    counter++;
+                } else {
+                    lastMillis++;
+                    counter = 0;
+                }
+                millis = lastMillis;
+                sequence = counter;
+            }
+            long msb = (millis & 0xFFFF_FFFF_FFFFL) << 16 | 0x7000L | sequence;
+            long lsb = RANDOM.nextLong() & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+            return new UUID(msb, lsb);
+        }
+    }
+}
@@ -3,20 +3,50 @@ package com.wendrewnick.musicmanager.repository;
 import com.wendrewnick.musicmanager.entity.Album;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface AlbumRepository extends JpaRepository<Album, UUID> {
-    Page<Album> findByTitleContainingIgnoreCase(String title, Pageable pageable);
+public interface AlbumRepository extends JpaRepository<Album, UUID>, AlbumRepositoryCustom {
 
-    @Query("SELECT DISTINCT a FROM Album a JOIN a.artists art WHERE LOWER(art.name) LIKE LOWER(CONCAT('%', :artistName, '%'))")
-    Page<Album> findByArtistsNameContainingIgnoreCase(@Param("artistName") String artistName, Pageable pageable);
+    // As listagens paginam apenas os IDs; artistas e imagens da página são carregados
+    // de uma vez por findAllWithArtistsAndImagesByIdIn, evitando N+1.
+    // Buscas por substring usam LOWER(coluna) LIKE para casar com os índices trigram (V6, PostgreSQL).
 
-    @Query("SELECT DISTINCT a FROM Album a JOIN a.artists art WHERE art.band = :isBand")
-    Page<Album> findByArtistType(@Param("isBand") boolean isBand, Pageable pageable);
+    @Query("SELECT a.id FROM Album a")
+    Page<UUID> findAllIds(Pageable pageable);
+
+    @Query("SELECT a.id FROM Album a WHERE LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    Page<UUID> findIdsByTitleContainingIgnoreCase(@Param("title") String title, Pageable pageable);
+
+    @Query("SELECT a.id FROM Album a WHERE EXISTS (SELECT 1 FROM a.artists art WHERE LOWER(art.name) LIKE LOWER(CONCAT('%', :artistName, '%')))")
+    Page<UUID> findIdsByArtistsNameContainingIgnoreCase(@Param("artistName") String artistName, Pageable pageable);
+
+    @Query("SELECT a.id FROM Album a WHERE EXISTS (SELECT 1 FROM a.artists art WHERE art.band = :isBand)")
+    Page<UUID> findIdsByArtistType(@Param("isBand") boolean isBand, Pageable pageable);
+
+    @Query("SELECT a.version FROM Album a WHERE a.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    // album_artists e album_images saem por ON DELETE CASCADE; 0 linhas = álbum alterado ou excluído desde a leitura
+    @Modifying
+    @Query("DELETE FROM Album a WHERE a.id = :id AND a.version = :version")
+    int deleteByIdAndVersion(@Param("id") UUID id, @Param("version") Long version);
+
+    // Capas são endereçadas por conteúdo e compartilhadas entre álbuns: album_images é a contagem de referências
+    @Query("SELECT DISTINCT i FROM Album a JOIN a.images i WHERE i IN :keys")
+    List<String> findReferencedImageKeys(@Param("keys") Collection<String> keys);
+
+    @EntityGraph(attributePaths = {"artists", "images"})
+    @Query("SELECT a FROM Album a WHERE a.id IN :ids")
+    List<Album> findAllWithArtistsAndImagesByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,16 @@
+package com.wendrewnick.musicmanager.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface AlbumRepositoryCustom {
+
+    /**
+     * Página por keyset: retorna até {@code limit} linhas (id + chave de ordenação) posteriores a
+     * ({@code afterKey}, {@code afterId}), sem COUNT. Sem cursor ({@code afterId == null}) começa do início.
+     * {@code sortProperty} aceita title, year e createdAt.
+     */
+    List<KeysetRow> findKeysetPage(String title, String artistName, Boolean soloOrBand,
+                                   String sortProperty, boolean ascending,
+                                   Object afterKey, UUID afterId, int limit);
+}
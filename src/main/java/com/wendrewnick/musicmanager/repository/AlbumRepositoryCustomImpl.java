@@ -0,0 +1,69 @@
+package com.wendrewnick.musicmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class AlbumRepositoryCustomImpl implements AlbumRepositoryCustom {
+
+    // release_year é opcional; COALESCE mantém a chave total (índice de expressão em V7, PostgreSQL)
+    private static final Map<String, String> SORT_EXPRESSIONS = Map.of(
+            "title", "a.title",
+            "year", "COALESCE(a.year, 0)",
+            "createdAt", "a.createdAt");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<KeysetRow> findKeysetPage(String title, String artistName, Boolean soloOrBand,
+                                          String sortProperty, boolean ascending,
+                                          Object afterKey, UUID afterId, int limit) {
+        String sortExpression = SORT_EXPRESSIONS.get(sortProperty);
+        if (sortExpression == null) {
+            throw new IllegalArgumentException("Ordenação não suportada: " + sortProperty);
+        }
+        String direction = ascending ? "ASC" : "DESC";
+
+        List<String> conditions = new ArrayList<>();
+        if (title != null && !title.isBlank()) {
+            conditions.add("LOWER(a.title) LIKE LOWER(CONCAT('%', :title, '%'))");
+        }
+        if (artistName != null && !artistName.isBlank()) {
+            conditions.add("EXISTS (SELECT 1 FROM a.artists art WHERE LOWER(art.name) LIKE LOWER(CONCAT('%', :artistName, '%')))");
+        }
+        if (soloOrBand != null) {
+            conditions.add("EXISTS (SELECT 1 FROM a.artists art WHERE art.band = :isBand)");
+        }
+        if (afterId != null) {
+            conditions.add("(" + sortExpression + ", a.id) " + (ascending ? ">" : "<") + " (:afterKey, :afterId)");
+        }
+
+        String jpql = "SELECT a.id, " + sortExpression + " FROM Album a"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + sortExpression + " " + direction + ", a.id " + direction;
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        if (title != null && !title.isBlank()) {
+            query.setParameter("title", title);
+        }
+        if (artistName != null && !artistName.isBlank()) {
+            query.setParameter("artistName", artistName);
+        }
+        if (soloOrBand != null) {
+            query.setParameter("isBand", soloOrBand);
+        }
+        if (afterId != null) {
+            query.setParameter("afterKey", afterKey);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList().stream()
+                .map(row -> new KeysetRow((UUID) row[0], row[1]))
+                .toList();
+    }
+}
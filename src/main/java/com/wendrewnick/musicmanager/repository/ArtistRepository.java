@@ -4,13 +4,26 @@ import com.wendrewnick.musicmanager.entity.Artist;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface ArtistRepository extends JpaRepository<Artist, UUID> {
-    Page<Artist> findByNameContainingIgnoreCase(String name, Pageable pageable);
+public interface ArtistRepository extends JpaRepository<Artist, UUID>, ArtistRepositoryCustom {
 
-    boolean existsByNameIgnoreCase(String name);
+    // LOWER(name) casa com o índice trigram idx_artists_name_trgm (V6, PostgreSQL)
+
+    @Query("SELECT a FROM Artist a WHERE LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Page<Artist> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT COUNT(a) > 0 FROM Artist a WHERE LOWER(a.name) = LOWER(:name)")
+    boolean existsByNameIgnoreCase(@Param("name") String name);
+
+    // Importação em lote: todos os artistas de um lote numa consulta; names já em minúsculas
+    @Query("SELECT a FROM Artist a WHERE a.id IN :ids OR LOWER(a.name) IN :names")
+    List<Artist> findAllByIdInOrLowerNameIn(@Param("ids") Collection<UUID> ids, @Param("names") Collection<String> names);
 }
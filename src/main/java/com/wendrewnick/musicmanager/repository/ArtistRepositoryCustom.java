@@ -0,0 +1,14 @@
+package com.wendrewnick.musicmanager.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ArtistRepositoryCustom {
+
+    /**
+     * Página por keyset: retorna até {@code limit} linhas (id + chave de ordenação) posteriores a
+     * ({@code afterKey}, {@code afterId}), sem COUNT. {@code sortProperty} aceita name e createdAt.
+     */
+    List<KeysetRow> findKeysetPage(String name, String sortProperty, boolean ascending,
+                                   Object afterKey, UUID afterId, int limit);
+}
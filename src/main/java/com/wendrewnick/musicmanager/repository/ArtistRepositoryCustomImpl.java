@@ -0,0 +1,54 @@
+package com.wendrewnick.musicmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class ArtistRepositoryCustomImpl implements ArtistRepositoryCustom {
+
+    private static final Map<String, String> SORT_EXPRESSIONS = Map.of(
+            "name", "a.name",
+            "createdAt", "a.createdAt");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<KeysetRow> findKeysetPage(String name, String sortProperty, boolean ascending,
+                                          Object afterKey, UUID afterId, int limit) {
+        String sortExpression = SORT_EXPRESSIONS.get(sortProperty);
+        if (sortExpression == null) {
+            throw new IllegalArgumentException("Ordenação não suportada: " + sortProperty);
+        }
+        String direction = ascending ? "ASC" : "DESC";
+
+        List<String> conditions = new ArrayList<>();
+        if (name != null && !name.isBlank()) {
+            conditions.add("LOWER(a.name) LIKE LOWER(CONCAT('%', :name, '%'))");
+        }
+        if (afterId != null) {
+            conditions.add("(" + sortExpression + ", a.id) " + (ascending ? ">" : "<") + " (:afterKey, :afterId)");
+        }
+
+        String jpql = "SELECT a.id, " + sortExpression + " FROM Artist a"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + sortExpression + " " + direction + ", a.id " + direction;
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        if (name != null && !name.isBlank()) {
+            query.setParameter("name", name);
+        }
+        if (afterId != null) {
+            query.setParameter("afterKey", afterKey);
+            query.setParameter("afterId", afterId);
+        }
+        return query.setMaxResults(limit).getResultList().stream()
+                .map(row -> new KeysetRow((UUID) row[0], row[1]))
+                .toList();
+    }
+}
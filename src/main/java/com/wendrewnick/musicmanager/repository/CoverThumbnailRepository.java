@@ -0,0 +1,34 @@
+package com.wendrewnick.musicmanager.repository;
+
+import com.wendrewnick.musicmanager.entity.CoverThumbnail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Registro das capas cujas miniaturas já estão no bucket. Gravado pelo gerador depois do upload e apagado pela
+ * coleta de órfãos antes de remover os objetos, para que uma linha nunca aponte para miniaturas inexistentes.
+ */
+@Repository
+public interface CoverThumbnailRepository extends JpaRepository<CoverThumbnail, String> {
+
+    @Query("SELECT t.imageKey FROM CoverThumbnail t WHERE t.imageKey IN :keys")
+    List<String> findImageKeysIn(@Param("keys") Collection<String> keys);
+
+    // Idempotente: a mesma capa pode ser processada por várias réplicas ou uploads
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO cover_thumbnails (image_key) VALUES (:key) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int markGenerated(@Param("key") String imageKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CoverThumbnail t WHERE t.imageKey IN :keys")
+    int deleteByImageKeyIn(@Param("keys") Collection<String> keys);
+}
@@ -0,0 +1,6 @@
+package com.wendrewnick.musicmanager.repository;
+
+import java.util.UUID;
+
+public record KeysetRow(UUID id, Object sortKey) {
+}
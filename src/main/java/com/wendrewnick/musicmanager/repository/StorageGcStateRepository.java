@@ -0,0 +1,39 @@
+package com.wendrewnick.musicmanager.repository;
+
+import com.wendrewnick.musicmanager.entity.StorageGcState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Lease da coleta de órfãos no banco: um UPDATE condicional decide qual réplica varre o bucket, sem manter
+ * transação aberta durante a varredura. Quem perde o lease (expirado e tomado por outra réplica) recebe 0 nas
+ * atualizações e para.
+ */
+@Repository
+public interface StorageGcStateRepository extends JpaRepository<StorageGcState, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StorageGcState s SET s.lockedBy = :owner, s.lockedUntil = :until "
+            + "WHERE s.name = :name AND (s.lockedUntil <= :now OR s.lockedBy = :owner)")
+    int tryLock(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now,
+                @Param("until") Instant until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StorageGcState s SET s.resumeAfter = :resumeAfter, s.lockedUntil = :until "
+            + "WHERE s.name = :name AND s.lockedBy = :owner")
+    int savePosition(@Param("name") String name, @Param("owner") String owner,
+                     @Param("resumeAfter") String resumeAfter, @Param("until") Instant until);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StorageGcState s SET s.lockedUntil = :now WHERE s.name = :name AND s.lockedBy = :owner")
+    int unlock(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -2,12 +2,18 @@ package com.wendrewnick.musicmanager.repository;
 
 import com.wendrewnick.musicmanager.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByUsername(String username);
+
+    // Usuários sem revogação (versão 0) ficam de fora: o cache assume 0 para quem não aparece
+    @Query("SELECT new com.wendrewnick.musicmanager.repository.UserTokenVersion(u.username, u.tokenVersion) FROM User u WHERE u.tokenVersion > 0")
+    List<UserTokenVersion> findRevokedTokenVersions();
 }
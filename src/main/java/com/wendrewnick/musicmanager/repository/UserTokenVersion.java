@@ -0,0 +1,4 @@
+package com.wendrewnick.musicmanager.repository;
+
+public record UserTokenVersion(String username, int tokenVersion) {
+}
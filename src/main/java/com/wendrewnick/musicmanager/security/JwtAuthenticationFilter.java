@@ -1,12 +1,16 @@
 package com.wendrewnick.musicmanager.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -21,6 +26,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -37,10 +46,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7);
         try {
-            username = jwtService.extractUsername(jwt);
+            // Assinatura e expiração verificadas uma vez; as claims são reaproveitadas abaixo
+            Claims claims = jwtService.verify(jwt);
+            username = claims.getSubject();
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                UserDetails userDetails = resolveUser(username, claims);
+                if (userDetails != null && username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -55,4 +66,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private UserDetails resolveUser(String username, Claims claims) {
+        int tokenVersion = JwtService.tokenVersionOf(claims);
+        List<?> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+        if (stateless && roles != null) {
+            // Identidade e papéis vêm do token assinado; a revogação é checada em memória, sem ir ao banco
+            if (!tokenVersionCache.isCurrent(username, tokenVersion)) {
+                return null;
+            }
+            return User.withUsername(username)
+                    .password("")
+                    .authorities(AuthorityUtils.createAuthorityList(roles.stream().map(String::valueOf).toList()))
+                    .build();
+        }
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (userDetails instanceof com.wendrewnick.musicmanager.entity.User user && tokenVersion < user.getTokenVersion()) {
+            return null;
+        }
+        return userDetails;
+    }
 }
@@ -0,0 +1,47 @@
+package com.wendrewnick.musicmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.local.LocalBucketBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+
+public class LocalBucketStore implements RateLimitBucketStore {
+
+    // Limite rígido de entradas: uma rajada de X-Forwarded-For forjados despeja buckets (W-TinyLFU)
+    // em vez de crescer o heap; buckets ociosos expiram sem varredura periódica do mapa
+    private final Cache<String, Bucket> buckets;
+
+    public LocalBucketStore(MeterRegistry meterRegistry, String cacheName, long maxBuckets, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, cacheName);
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, BucketConfiguration configuration) {
+        return buckets.get(key, k -> newBucket(configuration)).tryConsumeAndReturnRemaining(1);
+    }
+
+    private static Bucket newBucket(BucketConfiguration configuration) {
+        LocalBucketBuilder builder = Bucket.builder();
+        for (Bandwidth bandwidth : configuration.getBandwidths()) {
+            builder.addLimit(bandwidth);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        buckets.invalidateAll();
+    }
+}
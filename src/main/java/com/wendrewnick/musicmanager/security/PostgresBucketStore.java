@@ -0,0 +1,94 @@
+package com.wendrewnick.musicmanager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.BucketProxy;
+import io.github.bucket4j.distributed.jdbc.BucketTableSettings;
+import io.github.bucket4j.distributed.jdbc.PrimaryKeyMapper;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.postgresql.PostgreSQLSelectForUpdateBasedProxyManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buckets compartilhados entre as réplicas na tabela {@code rate_limit_buckets} (migration V11).
+ * <p>
+ * Cada réplica consome até {@code maxUnsynchronizedTokens} localmente antes de sincronizar com o banco
+ * (SELECT FOR UPDATE + UPDATE), o que mantém a média perto de uma ida ao banco por requisição; o excesso
+ * possível é de {@code réplicas × maxUnsynchronizedTokens}. Se o banco falhar, as requisições passam a usar
+ * buckets locais por {@code retryAfter} antes de nova tentativa.
+ */
+@Slf4j
+public class PostgresBucketStore implements RateLimitBucketStore {
+
+    private static final String TABLE_NAME = "rate_limit_buckets";
+
+    private final ProxyManager<String> proxyManager;
+    private final Optimization optimization;
+    private final LocalBucketStore fallback;
+    private final long retryAfterNanos;
+    private final Counter fallbacks;
+
+    // O proxy guarda os tokens ainda não sincronizados, então precisa ser reaproveitado entre requisições
+    private final Cache<String, BucketProxy> proxies;
+
+    private volatile long unavailableUntil = System.nanoTime();
+
+    public PostgresBucketStore(DataSource dataSource, MeterRegistry meterRegistry, long maxBuckets, Duration idleTimeout,
+                               long maxUnsynchronizedTokens, Duration maxUnsynchronizedTimeout, Duration retryAfter) {
+        this.proxyManager = new PostgreSQLSelectForUpdateBasedProxyManager<>(SQLProxyConfiguration.builder()
+                .withTableSettings(BucketTableSettings.customSettings(TABLE_NAME, "id", "state"))
+                .withPrimaryKeyMapper(PrimaryKeyMapper.STRING)
+                .build(dataSource));
+        this.optimization = maxUnsynchronizedTokens > 0
+                ? Optimizations.delaying(new DelayParameters(maxUnsynchronizedTokens, maxUnsynchronizedTimeout))
+                : Optimizations.batching();
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.fallbacks = meterRegistry.counter("rate-limit.store.fallbacks");
+        this.fallback = new LocalBucketStore(meterRegistry, "rate-limit.fallback-buckets", maxBuckets, idleTimeout);
+        this.proxies = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, proxies, "rate-limit.buckets");
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(String key, BucketConfiguration configuration) {
+        if (System.nanoTime() - unavailableUntil < 0) {
+            fallbacks.increment();
+            return fallback.tryConsume(key, configuration);
+        }
+        try {
+            BucketProxy bucket = proxies.get(key, k -> proxyManager.builder()
+                    .withOptimization(optimization)
+                    .build(k, () -> configuration));
+            return bucket.tryConsumeAndReturnRemaining(1);
+        } catch (Exception e) {
+            unavailableUntil = System.nanoTime() + retryAfterNanos;
+            fallbacks.increment();
+            log.warn("Store de rate limit indisponível, usando buckets locais por {} s: {}",
+                    TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos), e.getMessage());
+            return fallback.tryConsume(key, configuration);
+        }
+    }
+
+    @Override
+    public void close() {
+        proxies.invalidateAll();
+        fallback.close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.wendrewnick.musicmanager.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remove de {@code rate_limit_buckets} os buckets sem acesso há mais de {@code rate-limit.buckets.idle-minutes}
+ * (coluna {@code updated_at}, migration V14). O intervalo precisa ser maior que o período de recarga dos tiers
+ * (1 min): um bucket ocioso por esse tempo já está cheio, então apagá-lo não muda nenhum limite.
+ * <p>
+ * Lotes com {@code FOR UPDATE SKIP LOCKED}: não espera por buckets em uso e várias réplicas podem rodar ao mesmo
+ * tempo sem conflito.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "rate-limit.store", havingValue = "postgresql")
+public class RateLimitBucketPurger {
+
+    private static final String PURGE_SQL = """
+            DELETE FROM rate_limit_buckets WHERE id IN (
+                SELECT id FROM rate_limit_buckets
+                WHERE updated_at < now() - ? * INTERVAL '1 second'
+                ORDER BY updated_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.buckets.idle-minutes:10}")
+    private long idleMinutes;
+
+    @Value("${rate-limit.postgresql.purge-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${rate-limit.postgresql.purge-interval-ms:60000}")
+    public void purge() {
+        try {
+            purgeIdleBuckets();
+        } catch (Exception e) {
+            log.warn("Falha ao remover buckets ociosos do rate limit: {}", e.getMessage());
+        }
+    }
+
+    public int purgeIdleBuckets() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, idleMinutes * 60, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        meterRegistry.counter("rate-limit.store.purged").increment(total);
+        if (total > 0) {
+            log.debug("{} buckets ociosos removidos de rate_limit_buckets", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,17 @@
+package com.wendrewnick.musicmanager.security;
+
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+
+/**
+ * Onde ficam os buckets do {@link RateLimitFilter}: em memória ({@link LocalBucketStore})
+ * ou compartilhados entre réplicas ({@link PostgresBucketStore}), conforme {@code rate-limit.store}.
+ */
+public interface RateLimitBucketStore extends AutoCloseable {
+
+    ConsumptionProbe tryConsume(String key, BucketConfiguration configuration);
+
+    @Override
+    default void close() {
+    }
+}
@@ -1,8 +1,7 @@
 package com.wendrewnick.musicmanager.security;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,32 +9,23 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.time.Instant;
 import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class RateLimitFilter implements Filter {
 
-    private static final int CLEANUP_INTERVAL_MINUTES = 5;
-    private static final long BUCKET_TTL_MINUTES = 10;
-
-    private final Map<String, BucketInfo> cache = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService cleanupScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-        Thread t = new Thread(r, "rate-limit-cleanup");
-        t.setDaemon(true);
-        return t;
-    });
+    private final RateLimitBucketStore bucketStore;
+    private final RateLimitTierProperties tierProperties;
 
     @Value("${rate-limit.enabled:true}")
     private boolean rateLimitEnabled;
@@ -43,11 +33,20 @@ public class RateLimitFilter implements Filter {
     @Value("${rate-limit.requests-per-minute:10}")
     private int requestsPerMinute;
 
+    @Value("${rate-limit.max-wait-ms:0}")
+    private long maxWaitMs;
+
+    private RateLimitTiers tiers;
+
+    @PostConstruct
+    void initTiers() {
+        tiers = RateLimitTiers.compile(tierProperties.tiers(), requestsPerMinute);
+    }
+
     @Override
     public void init(jakarta.servlet.FilterConfig filterConfig) {
-        cleanupScheduler.scheduleAtFixedRate(this::cleanupExpiredBuckets, 
-                CLEANUP_INTERVAL_MINUTES, CLEANUP_INTERVAL_MINUTES, TimeUnit.MINUTES);
-        log.info("Rate limit inicializado: {} requisições por minuto", requestsPerMinute);
+        log.info("Rate limit inicializado: {} requisições por minuto, {} faixa(s) por rota ({})", requestsPerMinute,
+                tierProperties.tiers().size(), bucketStore.getClass().getSimpleName());
     }
 
     @Override
@@ -70,17 +69,22 @@ public class RateLimitFilter implements Filter {
         }
 
         try {
-            String key = resolveKey(request);
-            BucketInfo bucketInfo = cache.computeIfAbsent(key, k -> new BucketInfo(createNewBucket(), System.currentTimeMillis()));
-            bucketInfo.lastAccessTime = System.currentTimeMillis();
-
-            ConsumptionProbe probe = bucketInfo.bucket.tryConsumeAndReturnRemaining(1);
+            // Cada faixa tem seu próprio bucket: escritas pesadas não consomem o orçamento das leituras
+            RateLimitTiers.Tier tier = tiers.resolve(request.getMethod(), requestURI);
+            String key = tier.name() + "|" + resolveKey(request);
+            ConsumptionProbe probe = bucketStore.tryConsume(key, tier.configuration());
+            if (!probe.isConsumed() && probe.getNanosToWaitForRefill() <= TimeUnit.MILLISECONDS.toNanos(maxWaitMs)) {
+                // Token prestes a voltar: espera alguns ms no servidor em vez de devolver 429
+                if (waitForRefill(probe.getNanosToWaitForRefill())) {
+                    probe = bucketStore.tryConsume(key, tier.configuration());
+                }
+            }
 
             if (probe.isConsumed()) {
-                addRateLimitHeaders(response, probe);
+                addRateLimitHeaders(response, tier, probe);
                 filterChain.doFilter(servletRequest, servletResponse);
             } else {
-                handleRateLimitExceeded(response, probe);
+                handleRateLimitExceeded(response, tier, probe);
             }
         } catch (Exception e) {
             log.error("Erro no rate limit para URI: {}", requestURI, e);
@@ -96,44 +100,53 @@ public class RateLimitFilter implements Filter {
                 || requestURI.equals("/");
     }
 
-    private void addRateLimitHeaders(HttpServletResponse response, ConsumptionProbe probe) {
-        response.setHeader("X-RateLimit-Limit", String.valueOf(requestsPerMinute));
+    private void addRateLimitHeaders(HttpServletResponse response, RateLimitTiers.Tier tier, ConsumptionProbe probe) {
+        response.setHeader("X-RateLimit-Limit", String.valueOf(tier.limit()));
         response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
-        long resetTime = (System.currentTimeMillis() / 1000) + 60;
-        response.setHeader("X-RateLimit-Reset", String.valueOf(resetTime));
+        // Momento em que o bucket volta a ficar cheio, segundo o estado real de reabastecimento
+        response.setHeader("X-RateLimit-Reset", String.valueOf(epochSecondsAfter(probe.getNanosToWaitForReset())));
     }
 
-    private void handleRateLimitExceeded(HttpServletResponse response, ConsumptionProbe probe) throws IOException {
+    private void handleRateLimitExceeded(HttpServletResponse response, RateLimitTiers.Tier tier, ConsumptionProbe probe)
+            throws IOException {
         if (response.isCommitted()) {
             return;
         }
 
-        long retryAfter = 60;
-        long resetTime = (System.currentTimeMillis() / 1000) + retryAfter;
-        
+        long retryAfter = Math.max(1, ceilSeconds(probe.getNanosToWaitForRefill()));
+        long resetTime = epochSecondsAfter(probe.getNanosToWaitForReset());
+
         response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
         response.setContentType("application/json");
         response.setCharacterEncoding("UTF-8");
         response.setHeader("Retry-After", String.valueOf(retryAfter));
-        response.setHeader("X-RateLimit-Limit", String.valueOf(requestsPerMinute));
+        response.setHeader("X-RateLimit-Limit", String.valueOf(tier.limit()));
         response.setHeader("X-RateLimit-Remaining", "0");
         response.setHeader("X-RateLimit-Reset", String.valueOf(resetTime));
 
         String body = String.format("""
                 {"title":"Limite de requisições excedido","detail":"Máximo de %d requisições por minuto por usuário. Tente novamente em %d segundos.","status":429,"retryAfter":%d}""",
-                requestsPerMinute, retryAfter, retryAfter);
+                tier.limit(), retryAfter, retryAfter);
         
         response.getWriter().write(body);
     }
 
-    private Bucket createNewBucket() {
-        Bandwidth limit = Bandwidth.builder()
-                .capacity(requestsPerMinute)
-                .refillGreedy(requestsPerMinute, Duration.ofMinutes(1))
-                .build();
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    private static boolean waitForRefill(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static long epochSecondsAfter(long nanos) {
+        return Instant.now().getEpochSecond() + ceilSeconds(nanos);
     }
 
     private String resolveKey(HttpServletRequest request) {
@@ -165,38 +178,4 @@ public class RateLimitFilter implements Filter {
         
         return request.getRemoteAddr();
     }
-
-    private void cleanupExpiredBuckets() {
-        long expireTime = BUCKET_TTL_MINUTES * 60 * 1000;
-        long now = System.currentTimeMillis();
-        
-        cache.entrySet().removeIf(entry -> {
-            long lastAccess = entry.getValue().lastAccessTime;
-            return (now - lastAccess) > expireTime;
-        });
-    }
-
-    @Override
-    public void destroy() {
-        cleanupScheduler.shutdown();
-        try {
-            if (!cleanupScheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                cleanupScheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            cleanupScheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-        cache.clear();
-    }
-
-    private static class BucketInfo {
-        final Bucket bucket;
-        volatile long lastAccessTime;
-
-        BucketInfo(Bucket bucket, long lastAccessTime) {
-            this.bucket = bucket;
-            this.lastAccessTime = lastAccessTime;
-        }
-    }
 }
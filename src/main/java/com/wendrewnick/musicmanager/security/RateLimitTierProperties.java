@@ -0,0 +1,33 @@
+package com.wendrewnick.musicmanager.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Faixas de rate limit por rota ({@code rate-limit.tiers}). A primeira faixa cujo padrão e método casam
+ * com a requisição vale; o que não casa com nenhuma usa {@code rate-limit.requests-per-minute}.
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitTierProperties(List<Tier> tiers) {
+
+    public RateLimitTierProperties {
+        tiers = tiers != null ? tiers : List.of();
+    }
+
+    /**
+     * @param pattern          padrão de caminho no formato do Spring MVC, ex.: {@code /api/v1/albums/**}
+     * @param methods          métodos HTTP cobertos; vazio cobre todos
+     * @param requestsPerMinute taxa sustentada
+     * @param burstCapacity    requisições permitidas dentro de {@code burstWindow}; 0 desliga o limite de rajada
+     */
+    public record Tier(String name, String pattern, List<String> methods, int requestsPerMinute,
+                       int burstCapacity, Duration burstWindow) {
+
+        public Tier {
+            methods = methods != null ? methods : List.of();
+            burstWindow = burstWindow != null ? burstWindow : Duration.ofSeconds(1);
+        }
+    }
+}
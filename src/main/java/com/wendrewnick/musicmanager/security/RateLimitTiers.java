@@ -0,0 +1,102 @@
+package com.wendrewnick.musicmanager.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Faixas compiladas uma única vez na inicialização: padrões já parseados e agrupados por método HTTP,
+ * de modo que a requisição percorre só as regras do próprio método, sem parse nem regex.
+ */
+class RateLimitTiers {
+
+    static final String DEFAULT_TIER = "default";
+
+    record Tier(String name, long limit, BucketConfiguration configuration) {
+    }
+
+    private record CompiledRule(PathPattern pattern, Tier tier) {
+    }
+
+    private final Map<String, CompiledRule[]> rulesByMethod;
+    private final CompiledRule[] anyMethodRules;
+    private final Tier defaultTier;
+
+    private RateLimitTiers(Map<String, CompiledRule[]> rulesByMethod, CompiledRule[] anyMethodRules, Tier defaultTier) {
+        this.rulesByMethod = rulesByMethod;
+        this.anyMethodRules = anyMethodRules;
+        this.defaultTier = defaultTier;
+    }
+
+    static RateLimitTiers compile(List<RateLimitTierProperties.Tier> tiers, int defaultRequestsPerMinute) {
+        PathPatternParser parser = PathPatternParser.defaultInstance;
+        List<String> methods = tiers.stream()
+                .flatMap(tier -> tier.methods().stream())
+                .map(method -> method.toUpperCase(Locale.ROOT))
+                .distinct()
+                .toList();
+
+        // Mantém a ordem declarada: para cada método, as regras específicas e as "qualquer método" intercaladas
+        Map<String, List<CompiledRule>> byMethod = new HashMap<>();
+        methods.forEach(method -> byMethod.put(method, new ArrayList<>()));
+        List<CompiledRule> anyMethod = new ArrayList<>();
+        for (RateLimitTierProperties.Tier properties : tiers) {
+            CompiledRule rule = new CompiledRule(parser.parse(properties.pattern()), toTier(properties));
+            if (properties.methods().isEmpty()) {
+                anyMethod.add(rule);
+                byMethod.values().forEach(rules -> rules.add(rule));
+            } else {
+                properties.methods().forEach(method -> byMethod.get(method.toUpperCase(Locale.ROOT)).add(rule));
+            }
+        }
+
+        Map<String, CompiledRule[]> compiled = new HashMap<>();
+        byMethod.forEach((method, rules) -> compiled.put(method, rules.toArray(CompiledRule[]::new)));
+        Tier defaultTier = new Tier(DEFAULT_TIER, defaultRequestsPerMinute,
+                configuration(defaultRequestsPerMinute, 0, Duration.ZERO));
+        return new RateLimitTiers(Map.copyOf(compiled), anyMethod.toArray(CompiledRule[]::new), defaultTier);
+    }
+
+    Tier resolve(String method, String requestURI) {
+        CompiledRule[] rules = rulesByMethod.getOrDefault(method, anyMethodRules);
+        if (rules.length == 0) {
+            return defaultTier;
+        }
+        PathContainer path = PathContainer.parsePath(requestURI);
+        for (CompiledRule rule : rules) {
+            if (rule.pattern().matches(path)) {
+                return rule.tier();
+            }
+        }
+        return defaultTier;
+    }
+
+    private static Tier toTier(RateLimitTierProperties.Tier properties) {
+        return new Tier(properties.name(), properties.requestsPerMinute(), configuration(
+                properties.requestsPerMinute(), properties.burstCapacity(), properties.burstWindow()));
+    }
+
+    private static BucketConfiguration configuration(int requestsPerMinute, int burstCapacity, Duration burstWindow) {
+        var builder = BucketConfiguration.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(requestsPerMinute)
+                        .refillGreedy(requestsPerMinute, Duration.ofMinutes(1))
+                        .build());
+        if (burstCapacity > 0) {
+            builder.addLimit(Bandwidth.builder()
+                    .capacity(burstCapacity)
+                    .refillIntervally(burstCapacity, burstWindow)
+                    .build());
+        }
+        return builder.build();
+    }
+}
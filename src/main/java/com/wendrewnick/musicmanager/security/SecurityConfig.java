@@ -50,6 +50,7 @@ public class SecurityConfig {
                                                                                         {"title":"Acesso negado","detail":"Você não tem permissão para acessar este recurso.","status":403}""");
                                                 }))
                                 .authorizeHttpRequests(auth -> auth
+                                                .requestMatchers("/api/v1/auth/logout").authenticated()
                                                 .requestMatchers(
                                                                 "/",
                                                                 "/api/v1/auth/**",
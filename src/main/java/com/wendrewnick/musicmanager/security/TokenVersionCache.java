@@ -0,0 +1,70 @@
+package com.wendrewnick.musicmanager.security;
+
+import com.wendrewnick.musicmanager.repository.UserRepository;
+import com.wendrewnick.musicmanager.repository.UserTokenVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Versões de token vigentes por usuário, mantidas em memória e recarregadas periodicamente do banco.
+ * <p>
+ * No modo {@code jwt.stateless} é a única checagem de revogação por requisição: um token com "ver"
+ * menor que a versão atual do usuário é recusado. No modo padrão, {@link UserDetailsServiceImpl} a usa para
+ * descartar usuários em cache mais antigos que a versão vigente, o que propaga entre réplicas logout e troca
+ * de senha. Nos dois casos a janela de revogação é o intervalo de recarga.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersionCache {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Map<String, Integer> versions = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.token-version.refresh-interval-ms:30000}")
+    public void refresh() {
+        try {
+            versions = userRepository.findRevokedTokenVersions().stream()
+                    .collect(Collectors.toUnmodifiableMap(UserTokenVersion::username, UserTokenVersion::tokenVersion));
+            meterRegistry.counter("jwt.token-version.refreshes").increment();
+        } catch (Exception e) {
+            // Mantém o snapshot anterior; a próxima execução tenta de novo
+            meterRegistry.counter("jwt.token-version.errors").increment();
+            log.warn("Falha ao recarregar versões de token: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica na hora, nesta instância, uma revogação já gravada no banco; as demais réplicas
+     * a percebem na próxima recarga.
+     */
+    public synchronized void revoke(String username, int tokenVersion) {
+        Map<String, Integer> updated = new HashMap<>(versions);
+        updated.merge(username, tokenVersion, Math::max);
+        versions = Map.copyOf(updated);
+    }
+
+    public boolean isCurrent(String username, int tokenVersion) {
+        return tokenVersion >= currentVersion(username);
+    }
+
+    public int currentVersion(String username) {
+        return versions.getOrDefault(username, 0);
+    }
+}
@@ -0,0 +1,49 @@
+package com.wendrewnick.musicmanager.security;
+
+import com.wendrewnick.musicmanager.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remove o usuário do cache de {@link UserDetailsServiceImpl} sempre que ele é gravado ou excluído,
+ * inclusive no reset de senha do admin feito a cada inicialização.
+ * <p>
+ * Os callbacks rodam no flush, antes do commit: uma leitura concorrente nesse intervalo ainda vê a linha
+ * antiga e a recolocaria no cache pelo TTL inteiro. Por isso, dentro de transação, a entrada é removida
+ * de novo depois do commit.
+ * <p>
+ * Instanciado pelo Hibernate via Spring; o serviço é resolvido sob demanda porque o listener é criado
+ * junto com o EntityManagerFactory, antes do UserRepository de que o serviço depende.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidationListener {
+
+    private final ObjectProvider<UserDetailsServiceImpl> userDetailsService;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void evict(User user) {
+        String username = user.getUsername();
+        evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        }
+    }
+
+    private void evict(String username) {
+        userDetailsService.ifAvailable(service -> service.evict(username));
+    }
+}
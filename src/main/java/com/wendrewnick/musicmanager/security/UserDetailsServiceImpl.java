@@ -1,21 +1,69 @@
 package com.wendrewnick.musicmanager.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wendrewnick.musicmanager.entity.User;
 import com.wendrewnick.musicmanager.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    private final TokenVersionCache tokenVersionCache;
+
+    @Value("${security.user-cache.max-size:10000}")
+    private long userCacheMaxSize;
+
+    @Value("${security.user-cache.ttl-seconds:300}")
+    private long userCacheTtlSeconds;
+
+    private Cache<String, User> users;
+
+    @PostConstruct
+    void init() {
+        // Gravações de User invalidam a entrada nesta réplica (UserCacheInvalidationListener); as feitas em outras
+        // réplicas chegam pelo TokenVersionCache. O TTL cobre alterações feitas fora do JPA
+        users = Caffeine.newBuilder()
+                .maximumSize(userCacheMaxSize)
+                .expireAfterWrite(userCacheTtlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "security.users");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        // Usuário inexistente não é cacheado: o loader devolve null e a próxima chamada consulta de novo
+        User user = users.get(username, this::findUser);
+        if (user != null && user.getTokenVersion() < tokenVersionCache.currentVersion(username)) {
+            // Logout ou troca de senha feitos em outra réplica (vistos na última recarga): a entrada local está velha
+            users.invalidate(username);
+            user = users.get(username, this::findUser);
+        }
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found");
+        }
+        return user;
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username).orElse(null);
+    }
+
+    public void evict(String username) {
+        users.invalidate(username);
     }
 }
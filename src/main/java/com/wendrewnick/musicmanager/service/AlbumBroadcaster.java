@@ -0,0 +1,19 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+
+import java.util.List;
+
+/**
+ * Entrega um lote de eventos de álbuns aos assinantes de {@code /topic/albums}. A implementação define o alcance:
+ * só o broker desta réplica ({@link LocalAlbumBroadcaster}, também usado com o relay STOMP, que já replica)
+ * ou todas as réplicas via PostgreSQL ({@link PostgresAlbumBroadcaster}).
+ */
+public interface AlbumBroadcaster extends AutoCloseable {
+
+    void broadcast(List<AlbumChangeEvent> events);
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,11 @@
+package com.wendrewnick.musicmanager.service;
+
+import java.io.OutputStream;
+
+public interface AlbumExportService {
+
+    /**
+     * Escreve o catálogo completo de álbuns em NDJSON (um álbum por linha) direto no {@code outputStream}.
+     */
+    void exportNdjson(OutputStream outputStream);
+}
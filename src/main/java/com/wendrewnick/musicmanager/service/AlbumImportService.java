@@ -0,0 +1,14 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.wendrewnick.musicmanager.dto.AlbumImportResultDTO;
+
+import java.io.InputStream;
+
+public interface AlbumImportService {
+
+    /**
+     * Lê álbuns de {@code inputStream} (array JSON ou NDJSON) e grava em lotes de {@code chunkSize}, cada lote
+     * numa transação. Álbuns inválidos são reportados no resultado do lote sem impedir os demais.
+     */
+    AlbumImportResultDTO importAlbums(InputStream inputStream, int chunkSize);
+}
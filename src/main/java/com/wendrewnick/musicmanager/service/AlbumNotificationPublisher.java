@@ -0,0 +1,129 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Eventos de álbuns para {@code /topic/albums}, enviados em lote fora da thread da requisição.
+ * <p>
+ * Cada evento entra num buffer circular só depois do commit; a cada {@code websocket.notifications.flush-interval-ms},
+ * ou quando o buffer junta {@code max-batch-size} eventos, o lote é enviado como um único frame com a lista de
+ * eventos (o mesmo álbum aparece uma vez, com os eventos combinados por {@link AlbumChangeEvent#mergedWith}). Com o
+ * buffer cheio, os eventos mais antigos são descartados. O alcance da entrega (só esta réplica ou todas) depende do {@link AlbumBroadcaster} configurado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlbumNotificationPublisher {
+
+    public static final String DESTINATION = "/topic/albums";
+
+    private final AlbumBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${websocket.notifications.buffer-size:10000}")
+    private int bufferSize;
+
+    @Value("${websocket.notifications.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${websocket.notifications.flush-interval-ms:250}")
+    private long flushIntervalMs;
+
+    private ArrayBlockingQueue<AlbumChangeEvent> buffer;
+    private ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private Counter droppedCounter;
+    private Counter batchCounter;
+
+    @PostConstruct
+    void init() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        droppedCounter = meterRegistry.counter("websocket.notifications.dropped");
+        batchCounter = meterRegistry.counter("websocket.notifications.batches");
+        meterRegistry.gauge("websocket.notifications.buffered", buffer, ArrayBlockingQueue::size);
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "album-notifications");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        flushSafely();
+    }
+
+    /**
+     * Agenda o evento. Dentro de uma transação, só entra no buffer após o commit; um rollback o descarta.
+     */
+    public void publish(AlbumChangeEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    void enqueue(AlbumChangeEvent event) {
+        // Buffer circular: sem espaço, o evento mais antigo dá lugar ao novo
+        while (!buffer.offer(event)) {
+            if (buffer.poll() != null) {
+                droppedCounter.increment();
+            }
+        }
+        if (buffer.size() >= maxBatchSize && !flusher.isShutdown() && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flushSafely);
+        }
+    }
+
+    void flush() {
+        flushRequested.set(false);
+        List<AlbumChangeEvent> drained = new ArrayList<>(Math.min(maxBatchSize, bufferSize));
+        while (buffer.drainTo(drained, maxBatchSize) > 0) {
+            Map<UUID, AlbumChangeEvent> coalesced = new LinkedHashMap<>();
+            for (AlbumChangeEvent event : drained) {
+                AlbumChangeEvent previous = coalesced.remove(event.getId());
+                coalesced.put(event.getId(), previous != null ? previous.mergedWith(event) : event);
+            }
+            broadcaster.broadcast(List.copyOf(coalesced.values()));
+            batchCounter.increment();
+            drained.clear();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Erro ao enviar notificações WebSocket, continuando...", e);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.wendrewnick.musicmanager.service;
 
 import com.wendrewnick.musicmanager.dto.AlbumDTO;
+import com.wendrewnick.musicmanager.dto.CoverUploadUrlDTO;
+import com.wendrewnick.musicmanager.dto.CursorPageDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -11,6 +14,8 @@ import java.util.UUID;
 public interface AlbumService {
     Page<AlbumDTO> findAll(String title, String artistName, Boolean soloOrBand, Pageable pageable);
 
+    CursorPageDTO<AlbumDTO> findAllByCursor(String title, String artistName, Boolean soloOrBand, String after, int size, Sort sort);
+
     AlbumDTO findById(UUID id);
 
     AlbumDTO create(AlbumDTO albumDTO, List<MultipartFile> images);
@@ -19,6 +24,10 @@ public interface AlbumService {
 
     void addCovers(UUID id, List<MultipartFile> files);
 
+    List<CoverUploadUrlDTO> createCoverUploadUrls(UUID id, List<String> fileNames);
+
+    void commitCovers(UUID id, List<String> keys);
+
     List<String> getCoverUrls(UUID id);
 
     void delete(UUID id);
@@ -1,14 +1,18 @@
 package com.wendrewnick.musicmanager.service;
 
 import com.wendrewnick.musicmanager.dto.ArtistDTO;
+import com.wendrewnick.musicmanager.dto.CursorPageDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.UUID;
 
 public interface ArtistService {
     Page<ArtistDTO> findAll(String name, Pageable pageable);
 
+    CursorPageDTO<ArtistDTO> findAllByCursor(String name, String after, int size, Sort sort);
+
     ArtistDTO findById(UUID id);
 
     ArtistDTO create(ArtistDTO artistDTO);
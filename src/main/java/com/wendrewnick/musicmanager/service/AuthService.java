@@ -7,4 +7,6 @@ public interface AuthService {
         AuthResponse authenticate(AuthRequest request);
 
         AuthResponse refreshToken(String refreshToken);
+
+        void logout(String username);
 }
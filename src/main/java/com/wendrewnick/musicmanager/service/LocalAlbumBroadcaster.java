@@ -0,0 +1,18 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class LocalAlbumBroadcaster implements AlbumBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Override
+    public void broadcast(List<AlbumChangeEvent> events) {
+        messagingTemplate.convertAndSend(AlbumNotificationPublisher.DESTINATION, events);
+    }
+}
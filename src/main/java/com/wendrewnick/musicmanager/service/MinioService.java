@@ -1,9 +1,32 @@
 package com.wendrewnick.musicmanager.service;
 
+import com.wendrewnick.musicmanager.dto.AlbumCoverDTO;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Optional;
+
 public interface MinioService {
     String uploadFile(MultipartFile file);
 
     String getPresignedUrl(String objectName);
+
+    /**
+     * URL pré-assinada da miniatura da capa; o objeto pode ainda não existir enquanto a geração está na fila.
+     */
+    String getThumbnailUrl(String objectName, int size);
+
+    void deleteFile(String objectName);
+
+    /**
+     * URL pré-assinada de PUT para o cliente enviar o arquivo direto ao MinIO, sem passar pela API.
+     */
+    AlbumCoverDTO getPresignedUploadUrl(String objectName);
+
+    /**
+     * Metadados do objeto (HEAD), ou vazio se ele não existir no bucket.
+     */
+    Optional<StoredObject> statFile(String objectName);
+
+    record StoredObject(long size, String contentType) {
+    }
 }
@@ -0,0 +1,264 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.wendrewnick.musicmanager.entity.StorageGcState;
+import com.wendrewnick.musicmanager.repository.AlbumRepository;
+import com.wendrewnick.musicmanager.repository.CoverThumbnailRepository;
+import com.wendrewnick.musicmanager.repository.StorageGcStateRepository;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Remove do bucket de capas os objetos que nenhum álbum referencia (exclusões de álbuns, creates que falharam,
+ * uploads diretos nunca confirmados). Percorre o bucket em lotes de {@code storage.gc.batch-size} chaves,
+ * continuando de onde parou na execução anterior, e só apaga objetos mais antigos que o período de carência.
+ * <p>
+ * A posição da varredura fica em {@code storage_gc_state}, com um lease: só uma réplica varre por vez, então o
+ * limite {@code storage.gc.deletes-per-second} vale para o conjunto. Logo antes de cada exclusão em lote as
+ * referências e a idade dos objetos são conferidas de novo: uma capa reaproveitada por um upload (que renova o
+ * objeto no MinIO) ou associada a um álbum durante a varredura não é removida.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrphanObjectCollector {
+
+    // Limite do DeleteObjects do S3/MinIO por requisição
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+    static final String STATE_NAME = "covers";
+
+    private final MinioClient minioClient;
+    private final AlbumRepository albumRepository;
+    private final StorageGcStateRepository stateRepository;
+    private final CoverThumbnailRepository coverThumbnailRepository;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${minio.bucket-name}")
+    private String bucketName;
+
+    @Value("${storage.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.gc.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${storage.gc.batches-per-run:10}")
+    private int batchesPerRun;
+
+    @Value("${storage.gc.grace-period-hours:24}")
+    private long gracePeriodHours;
+
+    @Value("${storage.gc.deletes-per-second:100}")
+    private int deletesPerSecond;
+
+    @Value("${storage.gc.lease-ms:600000}")
+    private long leaseMs;
+
+    private Bucket deleteRateLimit;
+    private Counter scannedCounter;
+    private Counter deletedCounter;
+    private Counter errorCounter;
+    private Counter passCounter;
+
+    @PostConstruct
+    void init() {
+        deleteRateLimit = Bucket.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(deletesPerSecond)
+                        .refillGreedy(deletesPerSecond, Duration.ofSeconds(1))
+                        .build())
+                .build();
+        scannedCounter = meterRegistry.counter("storage.gc.objects.scanned");
+        deletedCounter = meterRegistry.counter("storage.gc.objects.deleted");
+        errorCounter = meterRegistry.counter("storage.gc.errors");
+        passCounter = meterRegistry.counter("storage.gc.passes");
+    }
+
+    @Scheduled(fixedDelayString = "${storage.gc.interval-ms:300000}", initialDelayString = "${storage.gc.initial-delay-ms:60000}")
+    public void collect() {
+        if (!enabled) {
+            return;
+        }
+        if (stateRepository.tryLock(STATE_NAME, nodeId, Instant.now(), leaseUntil()) == 0) {
+            log.debug("Coleta de objetos órfãos em andamento em outra réplica");
+            return;
+        }
+        // Última chave processada; null recomeça do início do bucket
+        String resumeAfter = stateRepository.findById(STATE_NAME).map(StorageGcState::getResumeAfter).orElse(null);
+        try {
+            for (int i = 0; i < batchesPerRun; i++) {
+                resumeAfter = sweepBatch(resumeAfter);
+                if (stateRepository.savePosition(STATE_NAME, nodeId, resumeAfter, leaseUntil()) == 0) {
+                    log.warn("Lease da coleta de objetos órfãos expirou; outra réplica assume a varredura");
+                    return;
+                }
+                if (resumeAfter == null) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            errorCounter.increment();
+            log.error("Erro na coleta de objetos órfãos (retomando após {})", resumeAfter, e);
+        } finally {
+            stateRepository.unlock(STATE_NAME, nodeId, Instant.now());
+        }
+    }
+
+    private Instant leaseUntil() {
+        return Instant.now().plusMillis(leaseMs);
+    }
+
+    /**
+     * Processa um lote da listagem a partir de {@code startAfter}. Retorna a chave de onde continuar, ou null
+     * quando chegou ao fim do bucket (a próxima execução recomeça).
+     */
+    String sweepBatch(String startAfter) throws Exception {
+        ListObjectsArgs.Builder args = ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .recursive(true)
+                .maxKeys(batchSize);
+        if (startAfter != null) {
+            args.startAfter(startAfter);
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofHours(gracePeriodHours));
+
+        // objeto -> capa dona do objeto (a própria chave ou a capa de uma miniatura)
+        Map<String, String> candidates = new LinkedHashMap<>();
+        String lastKey = null;
+        int scanned = 0;
+        for (Result<Item> result : minioClient.listObjects(args.build())) {
+            Item item = result.get();
+            lastKey = item.objectName();
+            scanned++;
+            if (!item.isDir() && item.lastModified().toInstant().isBefore(cutoff)) {
+                candidates.put(item.objectName(), coverKeyOf(item.objectName()));
+            }
+            if (scanned >= batchSize) {
+                break;
+            }
+        }
+        scannedCounter.increment(scanned);
+
+        if (!candidates.isEmpty()) {
+            delete(unreferenced(candidates), cutoff);
+        }
+
+        boolean hasMore = scanned >= batchSize;
+        if (!hasMore) {
+            passCounter.increment();
+            log.info("Coleta de objetos órfãos concluiu uma passada completa pelo bucket {}", bucketName);
+        }
+        return hasMore ? lastKey : null;
+    }
+
+    private Map<String, String> unreferenced(Map<String, String> candidates) {
+        Set<String> referenced = new HashSet<>(albumRepository.findReferencedImageKeys(new HashSet<>(candidates.values())));
+        Map<String, String> orphans = new LinkedHashMap<>(candidates);
+        orphans.values().removeIf(referenced::contains);
+        return orphans;
+    }
+
+    /**
+     * Confere de novo, imediatamente antes de remover: a capa dona não pode ter sido renovada no MinIO (upload
+     * que reaproveitou o conteúdo) nem ter ganhado referência desde a listagem.
+     */
+    private List<String> confirmOrphans(Map<String, String> chunk, Instant cutoff) {
+        Map<String, String> stale = new LinkedHashMap<>();
+        Map<String, Boolean> ownerIsStale = new HashMap<>();
+        for (Map.Entry<String, String> entry : chunk.entrySet()) {
+            if (ownerIsStale.computeIfAbsent(entry.getValue(), owner -> isStale(owner, cutoff))) {
+                stale.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return stale.isEmpty() ? List.of() : List.copyOf(unreferenced(stale).keySet());
+    }
+
+    private boolean isStale(String objectName, Instant cutoff) {
+        try {
+            StatObjectResponse stat = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build());
+            return stat.lastModified().toInstant().isBefore(cutoff);
+        } catch (ErrorResponseException e) {
+            // Capa já removida: suas miniaturas são órfãs
+            String code = e.errorResponse().code();
+            return "NoSuchKey".equals(code) || "NoSuchObject".equals(code);
+        } catch (Exception e) {
+            log.warn("Não foi possível conferir o objeto {}; mantido até a próxima passada", objectName, e);
+            return false;
+        }
+    }
+
+    private void delete(Map<String, String> orphans, Instant cutoff) throws Exception {
+        List<String> names = List.copyOf(orphans.keySet());
+        int chunkSize = Math.min(deletesPerSecond, MAX_KEYS_PER_DELETE);
+        for (int from = 0; from < names.size(); from += chunkSize) {
+            Map<String, String> candidates = new LinkedHashMap<>();
+            names.subList(from, Math.min(from + chunkSize, names.size()))
+                    .forEach(name -> candidates.put(name, orphans.get(name)));
+            deleteRateLimit.asBlocking().consume(candidates.size());
+            List<String> chunk = confirmOrphans(candidates, cutoff);
+            if (chunk.isEmpty()) {
+                continue;
+            }
+            // Antes dos objetos: se a remoção falhar no meio, a capa só deixa de expor miniaturas e as regera
+            coverThumbnailRepository.deleteByImageKeyIn(chunk.stream().map(OrphanObjectCollector::coverKeyOf)
+                    .collect(Collectors.toSet()));
+
+            int failed = 0;
+            for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .objects(chunk.stream().map(DeleteObject::new).toList())
+                    .build())) {
+                DeleteError error = result.get();
+                failed++;
+                log.warn("Não foi possível remover o objeto órfão {}: {}", error.objectName(), error.message());
+            }
+            errorCounter.increment(failed);
+            deletedCounter.increment(chunk.size() - failed);
+            log.debug("Removidos {} objetos órfãos", chunk.size() - failed);
+        }
+    }
+
+    static String coverKeyOf(String objectName) {
+        if (objectName.startsWith("thumbnails/")) {
+            int sizeEnd = objectName.indexOf('/', "thumbnails/".length());
+            if (sizeEnd > 0) {
+                return objectName.substring(sizeEnd + 1);
+            }
+        }
+        return objectName;
+    }
+}
@@ -0,0 +1,202 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replica os lotes de eventos de álbuns entre as réplicas da API por LISTEN/NOTIFY no canal {@code album_notifications}.
+ * <p>
+ * {@link #broadcast} só publica no banco; cada réplica, inclusive a que publicou, recebe a notificação numa conexão
+ * dedicada e repassa o JSON, sem desserializar, ao broker local. O custo na réplica que criou o álbum é um NOTIFY
+ * por lote, independente de quantos assinantes existam. Notificações emitidas enquanto a conexão de escuta está
+ * caída são perdidas (o NOTIFY não é durável).
+ */
+@Slf4j
+public class PostgresAlbumBroadcaster implements AlbumBroadcaster {
+
+    public static final String CHANNEL = "album_notifications";
+
+    // O payload do NOTIFY é limitado a 8000 bytes; lotes maiores viram vários NOTIFY
+    static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+    private static final int POLL_TIMEOUT_MS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration reconnectDelay;
+    private final Counter notifications;
+    private final Counter truncated;
+    private final Counter received;
+    private final Counter reconnects;
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listener;
+
+    public PostgresAlbumBroadcaster(DataSource dataSource, String jdbcUrl, String username, String password,
+                                    SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry, Duration reconnectDelay) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.reconnectDelay = reconnectDelay;
+        this.notifications = meterRegistry.counter("websocket.broker.notifications", "direction", "sent");
+        this.received = meterRegistry.counter("websocket.broker.notifications", "direction", "received");
+        this.truncated = meterRegistry.counter("websocket.broker.truncated");
+        this.reconnects = meterRegistry.counter("websocket.broker.reconnects");
+    }
+
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "album-notifications-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    @Override
+    public void broadcast(List<AlbumChangeEvent> events) {
+        for (String payload : toPayloads(events)) {
+            jdbcTemplate.query(NOTIFY_SQL, rs -> null, CHANNEL, payload);
+            notifications.increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            try {
+                listener.join(2 * POLL_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Divide o lote em arrays JSON que cabem num NOTIFY. Um evento que sozinho passa do limite segue sem
+     * {@code changes} (só tipo, id e versão); o cliente busca o álbum em GET /api/v1/albums/{id}.
+     */
+    List<String> toPayloads(List<AlbumChangeEvent> events) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder current = new StringBuilder("[");
+        int currentBytes = 1;
+        for (AlbumChangeEvent event : events) {
+            String json = toJson(event);
+            int bytes = json.getBytes(StandardCharsets.UTF_8).length;
+            if (bytes + 2 > MAX_PAYLOAD_BYTES) {
+                truncated.increment();
+                json = toJson(withoutChanges(event));
+                bytes = json.getBytes(StandardCharsets.UTF_8).length;
+            }
+            if (currentBytes > 1 && currentBytes + bytes + 2 > MAX_PAYLOAD_BYTES) {
+                payloads.add(current.append(']').toString());
+                current = new StringBuilder("[");
+                currentBytes = 1;
+            }
+            if (currentBytes > 1) {
+                current.append(',');
+                currentBytes++;
+            }
+            current.append(json);
+            currentBytes += bytes;
+        }
+        if (currentBytes > 1) {
+            payloads.add(current.append(']').toString());
+        }
+        return payloads;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                listening = true;
+                log.info("Escutando notificações de álbuns no canal {}", CHANNEL);
+                while (running) {
+                    PGNotification[] pending = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (pending != null) {
+                        for (PGNotification notification : pending) {
+                            deliver(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                listening = false;
+                if (!running) {
+                    return;
+                }
+                reconnects.increment();
+                log.warn("Conexão de escuta de álbuns caiu, reconectando em {} ms: {}", reconnectDelay.toMillis(), e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+        listening = false;
+    }
+
+    private void deliver(String payload) {
+        received.increment();
+        try {
+            messagingTemplate.send(AlbumNotificationPublisher.DESTINATION, MessageBuilder
+                    .withPayload(payload.getBytes(StandardCharsets.UTF_8))
+                    .setHeader(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)
+                    .build());
+        } catch (Exception e) {
+            log.warn("Erro ao repassar notificação de álbuns ao broker local", e);
+        }
+    }
+
+    private String toJson(AlbumChangeEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static AlbumChangeEvent withoutChanges(AlbumChangeEvent event) {
+        return AlbumChangeEvent.builder()
+                .type(event.getType())
+                .id(event.getId())
+                .version(event.getVersion())
+                .build();
+    }
+}
@@ -1,26 +1,49 @@
 package com.wendrewnick.musicmanager.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wendrewnick.musicmanager.dto.RegionalExternalDTO;
-import com.wendrewnick.musicmanager.entity.Regional;
+import com.wendrewnick.musicmanager.dto.RegionalResponseDTO;
 import com.wendrewnick.musicmanager.exception.ExternalApiException;
-import com.wendrewnick.musicmanager.repository.RegionalRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -29,116 +52,245 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RegionalService {
 
-    private final RegionalRepository regionalRepository;
+    private static final String SELECT_ACTIVE_SQL = "SELECT id, regional_id, nome FROM regionais WHERE ativo = true";
+    private static final String INSERT_SQL = "INSERT INTO regionais (id, regional_id, nome, ativo) VALUES (?, ?, ?, true)";
+    private static final String DEACTIVATE_SQL = "UPDATE regionais SET ativo = false WHERE id = ?";
+    private static final String SELECT_ALL_SQL = "SELECT regional_id, nome, ativo FROM regionais ORDER BY regional_id, ativo DESC, nome";
+    // Serializa a aplicação entre réplicas; liberado no commit ou rollback da transação
+    private static final String ADVISORY_LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('regionais.sync'))";
+
     private final ObjectMapper objectMapper;
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final AtomicReference<RegionalSnapshot> snapshot = new AtomicReference<>();
 
-    private static final String API_URL = "https://integrador-argus-api.geia.vip/v1/regionais";
+    @Value("${regionais.api-url:https://integrador-argus-api.geia.vip/v1/regionais}")
+    private String apiUrl;
 
-    @Async
-    @EventListener(ApplicationReadyEvent.class)
-    public void onStartup() {
-        syncRegionals();
-    }
+    @Value("${regionais.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
 
-    @Scheduled(fixedRate = 60000)
-    @Transactional
-    public void syncRegionals() {
-        log.info("Iniciando sincronização de regionais...");
-        try {
-            List<RegionalExternalDTO> remoteList = fetchRegionals();
-            Map<Integer, RegionalExternalDTO> remoteMap = remoteList.stream()
-                    .collect(Collectors.toMap(RegionalExternalDTO::id, Function.identity(),
-                            (existing, replacement) -> existing));
+    @Value("${regionais.http.read-timeout-ms:10000}")
+    private long readTimeoutMs;
 
-            List<Regional> localActiveList = regionalRepository.findByAtivoTrue();
-            Map<Integer, Regional> localMap = localActiveList.stream()
-                    .collect(Collectors.toMap(Regional::getRegionalId, Function.identity(),
-                            (existing, replacement) -> existing));
+    private HttpClient httpClient;
 
-            for (RegionalExternalDTO remote : remoteList) {
-                Regional local = localMap.get(remote.id());
-                if (local == null) {
+    private volatile Boolean postgres;
 
-                    createRegional(remote);
-                } else if (!local.getNome().equals(remote.nome())) {
+    // Hash da última lista remota aplicada: lista igual não gera nenhuma consulta ao banco
+    private volatile String lastAppliedHash;
 
-                    local.setAtivo(false);
-                    regionalRepository.save(local);
-                    createRegional(remote);
-                }
-            }
+    // Validadores da última resposta aplicada, reenviados como If-None-Match / If-Modified-Since
+    private volatile String lastEtag;
+    private volatile String lastModified;
 
-            for (Regional local : localActiveList) {
-                if (!remoteMap.containsKey(local.getRegionalId())) {
+    private record ActiveRegional(UUID id, Integer regionalId, String nome) {
+    }
 
-                    local.setAtivo(false);
-                    regionalRepository.save(local);
-                }
-            }
-            log.info("Sincronização concluída.");
+    private record RemoteRegionais(SortedMap<Integer, RegionalExternalDTO> byId, String etag, String lastModified) {
+    }
+
+    @PostConstruct
+    void initHttpClient() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
 
+    // A primeira execução fica com o RegionalSyncRunner; o agendamento começa um intervalo depois
+    @Scheduled(fixedDelayString = "${regionais.sync.interval-ms:60000}", initialDelayString = "${regionais.sync.interval-ms:60000}")
+    public void syncRegionals() {
+        // Evita duas chamadas à API nesta instância (ex.: sincronização inicial lenta); entre réplicas vale o advisory lock
+        if (!syncLock.tryLock()) {
+            log.debug("Sincronização de regionais já em andamento, ignorando disparo.");
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            log.info("Iniciando sincronização de regionais...");
+            Optional<RemoteRegionais> remote = fetchRegionals();
+            if (remote.isEmpty()) {
+                outcome = "not-modified";
+            } else {
+                outcome = applyRemote(remote.get().byId()) ? "changed" : "unchanged";
+                // Só depois de aplicar: se a gravação falhar, a próxima execução baixa a lista de novo
+                lastEtag = remote.get().etag();
+                lastModified = remote.get().lastModified();
+            }
+            log.info("Sincronização concluída ({}).", outcome);
         } catch (Exception e) {
             log.error("Erro ao sincronizar regionais: ", e);
+        } finally {
+            sample.stop(meterRegistry.timer("regionais.sync", "outcome", outcome));
+            syncLock.unlock();
         }
     }
 
-    private void createRegional(RegionalExternalDTO dto) {
-        Regional newRegional = Regional.builder()
-                .regionalId(dto.id())
-                .nome(dto.nome())
-                .ativo(true)
-                .build();
-        regionalRepository.save(newRegional);
-        log.debug("Regional criada/atualizada: {}", dto.nome());
+    /**
+     * Aplica a lista remota: regionais novas são inseridas, e as que sumiram ou mudaram de nome são desativadas
+     * (a mudança de nome gera uma nova linha ativa). Retorna false quando a lista não mudou desde a última aplicação.
+     */
+    boolean applyRemote(SortedMap<Integer, RegionalExternalDTO> remoteMap) {
+        String hash = hash(remoteMap.values());
+        if (hash.equals(lastAppliedHash)) {
+            return false;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (isPostgres()) {
+                // Quem chega depois espera e compara com as linhas já gravadas pela outra réplica, sem duplicar
+                jdbcTemplate.execute(ADVISORY_LOCK_SQL);
+            }
+            Map<Integer, ActiveRegional> localMap = jdbcTemplate.query(SELECT_ACTIVE_SQL, (rs, rowNum) ->
+                            new ActiveRegional(rs.getObject("id", UUID.class), rs.getObject("regional_id", Integer.class), rs.getString("nome")))
+                    .stream()
+                    .collect(Collectors.toMap(ActiveRegional::regionalId, Function.identity(),
+                            (existing, replacement) -> existing));
+
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> deactivations = new ArrayList<>();
+            for (RegionalExternalDTO remote : remoteMap.values()) {
+                ActiveRegional local = localMap.get(remote.id());
+                if (local == null || !Objects.equals(local.nome(), remote.nome())) {
+                    if (local != null) {
+                        deactivations.add(new Object[]{local.id()});
+                    }
+                    inserts.add(new Object[]{UUID.randomUUID(), remote.id(), remote.nome()});
+                }
+            }
+            for (ActiveRegional local : localMap.values()) {
+                if (!remoteMap.containsKey(local.regionalId())) {
+                    deactivations.add(new Object[]{local.id()});
+                }
+            }
+
+            if (!deactivations.isEmpty()) {
+                jdbcTemplate.batchUpdate(DEACTIVATE_SQL, deactivations);
+            }
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+            }
+            meterRegistry.counter("regionais.sync.rows", "operation", "inserted").increment(inserts.size());
+            meterRegistry.counter("regionais.sync.rows", "operation", "deactivated").increment(deactivations.size());
+            log.debug("Regionais: {} inseridas, {} desativadas", inserts.size(), deactivations.size());
+        });
+        lastAppliedHash = hash;
+        // Troca atômica: leitores veem o snapshot anterior inteiro ou o novo inteiro
+        snapshot.set(loadSnapshot());
+        return true;
     }
 
-    private List<RegionalExternalDTO> fetchRegionals() throws Exception {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(API_URL))
-                .GET()
-                .build();
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    private static String hash(Collection<RegionalExternalDTO> sortedById) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (RegionalExternalDTO regional : sortedById) {
+                digest.update((regional.id() + "\t" + regional.nome() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-        if (response.statusCode() != 200) {
-            throw new ExternalApiException("Falha na API externa: " + response.statusCode());
+    private Optional<RemoteRegionais> fetchRegionals() throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder()
+                .uri(URI.create(apiUrl))
+                .timeout(Duration.ofMillis(readTimeoutMs))
+                .GET();
+        if (lastEtag != null) {
+            request.header("If-None-Match", lastEtag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
         }
 
-        String responseBody = response.body();
-        if (responseBody == null || responseBody.isBlank()) {
-            throw new ExternalApiException("Resposta vazia da API externa");
+        HttpResponse<InputStream> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 304) {
+                return Optional.empty();
+            }
+            if (response.statusCode() != 200) {
+                throw new ExternalApiException("Falha na API externa: " + response.statusCode());
+            }
+            return Optional.of(new RemoteRegionais(parseWithDeadline(body),
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null)));
         }
+    }
 
+    /**
+     * {@code HttpRequest.timeout} só limita a espera pelos cabeçalhos: um servidor que para no meio do corpo
+     * deixaria a leitura (e os locks da sincronização) presa para sempre. O corpo é lido numa virtual thread
+     * com prazo de {@code regionais.http.read-timeout-ms}; estourado, a leitura é interrompida e o stream fechado.
+     */
+    private SortedMap<Integer, RegionalExternalDTO> parseWithDeadline(InputStream body) throws InterruptedException {
+        FutureTask<SortedMap<Integer, RegionalExternalDTO>> parse = new FutureTask<>(() -> parseRegionals(body));
+        Thread.ofVirtual().name("regionais-body").start(parse);
         try {
-            return objectMapper.readValue(responseBody, new TypeReference<>() {
-            });
-        } catch (Exception e) {
-            throw new ExternalApiException("Erro ao processar resposta da API externa", e);
+            return parse.get(readTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            parse.cancel(true);
+            throw new ExternalApiException("Tempo de leitura da resposta da API externa esgotado (" + readTimeoutMs + " ms)");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ExternalApiException("Erro ao processar resposta da API externa", e.getCause());
         }
     }
 
-    public List<Regional> findAll() {
-        return regionalRepository.findAll();
+    // Lê o array item a item direto do stream, sem materializar o corpo nem uma lista intermediária
+    private SortedMap<Integer, RegionalExternalDTO> parseRegionals(InputStream body) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new ExternalApiException("Resposta vazia da API externa");
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new ExternalApiException("Resposta inesperada da API externa: " + token);
+            }
+            SortedMap<Integer, RegionalExternalDTO> byId = new TreeMap<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                RegionalExternalDTO regional = objectMapper.readValue(parser, RegionalExternalDTO.class);
+                if (regional.id() != null) {
+                    byId.putIfAbsent(regional.id(), regional);
+                }
+            }
+            return byId;
+        } catch (IOException e) {
+            throw new ExternalApiException("Erro ao processar resposta da API externa", e);
+        }
     }
 
-    public List<Regional> findWithFilters(String nome, Integer id, Boolean ativo) {
-        List<Regional> result;
-        
-        if (id != null) {
-            result = regionalRepository.findByRegionalId(id);
-        } else if (nome != null && !nome.isBlank()) {
-            if (ativo != null) {
-                result = regionalRepository.findByNomeContainingIgnoreCaseAndAtivo(nome, ativo);
-            } else {
-                result = regionalRepository.findByNomeContainingIgnoreCase(nome);
-            }
-        } else if (ativo != null) {
-            result = regionalRepository.findByAtivo(ativo);
-        } else {
-            result = regionalRepository.findAll();
+    /**
+     * Snapshot atual das regionais. Antes da primeira sincronização, ou com a API externa fora do ar,
+     * é carregado do banco uma vez; depois só muda quando uma sincronização altera dados.
+     */
+    public RegionalSnapshot snapshot() {
+        RegionalSnapshot current = snapshot.get();
+        if (current == null) {
+            snapshot.compareAndSet(null, loadSnapshot());
+            current = snapshot.get();
         }
-        
-        return result;
+        return current;
+    }
+
+    private RegionalSnapshot loadSnapshot() {
+        return RegionalSnapshot.of(jdbcTemplate.query(SELECT_ALL_SQL, (rs, rowNum) -> RegionalResponseDTO.builder()
+                .id(rs.getObject("regional_id", Integer.class))
+                .nome(rs.getString("nome"))
+                .ativo(rs.getBoolean("ativo"))
+                .build()));
     }
 }
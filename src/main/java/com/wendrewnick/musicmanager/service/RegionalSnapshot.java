@@ -0,0 +1,92 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.wendrewnick.musicmanager.dto.RegionalResponseDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Cópia imutável da tabela regionais, indexada para os filtros de GET /api/v1/regionais.
+ * <p>
+ * Publicada por {@link RegionalService} depois de cada sincronização que altera dados; leituras não
+ * consultam o banco. O ETag é derivado do conteúdo, então vale para qualquer combinação de filtros
+ * enquanto o snapshot não mudar.
+ */
+public final class RegionalSnapshot {
+
+    private record Entry(RegionalResponseDTO regional, String lowerCaseNome) {
+    }
+
+    private final List<RegionalResponseDTO> all;
+    private final Map<Integer, List<RegionalResponseDTO>> byRegionalId;
+    private final Map<Boolean, List<Entry>> entriesByAtivo;
+    private final Map<Boolean, List<RegionalResponseDTO>> byAtivo;
+    private final List<Entry> nameIndex;
+    private final String etag;
+
+    private RegionalSnapshot(List<RegionalResponseDTO> regionais) {
+        this.all = List.copyOf(regionais);
+        this.byRegionalId = all.stream()
+                .filter(regional -> regional.getId() != null)
+                .collect(Collectors.groupingBy(RegionalResponseDTO::getId, Collectors.toUnmodifiableList()));
+        this.nameIndex = all.stream()
+                .map(regional -> new Entry(regional, lowerCase(regional.getNome())))
+                .toList();
+        this.entriesByAtivo = Map.of(
+                true, nameIndex.stream().filter(entry -> entry.regional().isAtivo()).toList(),
+                false, nameIndex.stream().filter(entry -> !entry.regional().isAtivo()).toList());
+        this.byAtivo = Map.of(
+                true, entriesByAtivo.get(true).stream().map(Entry::regional).toList(),
+                false, entriesByAtivo.get(false).stream().map(Entry::regional).toList());
+        this.etag = "\"" + contentHash(all) + "\"";
+    }
+
+    public static RegionalSnapshot of(List<RegionalResponseDTO> regionais) {
+        return new RegionalSnapshot(regionais);
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    public List<RegionalResponseDTO> find(String nome, Integer id, Boolean ativo) {
+        if (id != null) {
+            return byRegionalId.getOrDefault(id, List.of());
+        }
+        if (nome != null && !nome.isBlank()) {
+            String term = lowerCase(nome);
+            List<Entry> candidates = ativo != null ? entriesByAtivo.get(ativo) : nameIndex;
+            return candidates.stream()
+                    .filter(entry -> entry.lowerCaseNome() != null && entry.lowerCaseNome().contains(term))
+                    .map(Entry::regional)
+                    .toList();
+        }
+        if (ativo != null) {
+            return byAtivo.get(ativo);
+        }
+        return all;
+    }
+
+    private static String lowerCase(String value) {
+        return value != null ? value.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String contentHash(List<RegionalResponseDTO> regionais) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (RegionalResponseDTO regional : regionais) {
+                digest.update((regional.getId() + "\t" + regional.getNome() + "\t" + regional.isAtivo() + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
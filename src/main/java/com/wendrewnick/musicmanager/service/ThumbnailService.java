@@ -0,0 +1,27 @@
+package com.wendrewnick.musicmanager.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface ThumbnailService {
+
+    /**
+     * Lados máximos (px) das miniaturas geradas para cada capa, do maior para o menor.
+     */
+    List<Integer> SIZES = List.of(512, 128);
+
+    /**
+     * Agenda a geração das miniaturas da capa. Retorna logo; com a fila cheia, roda na thread chamadora.
+     */
+    void generateThumbnails(String objectName);
+
+    /**
+     * Das capas informadas, as que já têm miniaturas geradas. As demais ainda estão na fila ou falharam.
+     */
+    Set<String> withThumbnails(Collection<String> objectNames);
+
+    static String thumbnailKey(String objectName, int size) {
+        return "thumbnails/" + size + "/" + objectName;
+    }
+}
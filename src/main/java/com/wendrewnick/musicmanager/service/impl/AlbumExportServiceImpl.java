@@ -0,0 +1,88 @@
+package com.wendrewnick.musicmanager.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.service.AlbumExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class AlbumExportServiceImpl implements AlbumExportService {
+
+    static final int FETCH_SIZE = 1000;
+
+    // Uma linha por álbum: artistas e capas vêm agregados, sem JOIN que multiplique linhas nem ORDER BY global
+    private static final String EXPORT_SQL = """
+            SELECT a.id, a.title, a.release_year,
+                   ARRAY(SELECT ar.name FROM album_artists aa JOIN artists ar ON ar.id = aa.artist_id
+                         WHERE aa.album_id = a.id ORDER BY ar.name) AS artist_names,
+                   ARRAY(SELECT ai.image_key FROM album_images ai
+                         WHERE ai.album_id = a.id ORDER BY ai.image_key) AS cover_keys
+            FROM albums a""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // A transação mantém autocommit desligado: no PostgreSQL o fetch size só vira cursor no servidor assim
+    @Transactional(readOnly = true)
+    @Override
+    public void exportNdjson(OutputStream outputStream) {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sem o espaço padrão entre valores raiz: cada linha começa direto em "{", só o '\n' separa
+            generator.setRootValueSeparator(null);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> writeAlbum(generator, resultSet));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao escrever exportação de álbuns", e);
+        }
+    }
+
+    private void writeAlbum(JsonGenerator generator, ResultSet resultSet) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("id", resultSet.getObject("id", UUID.class).toString());
+            generator.writeStringField("title", resultSet.getString("title"));
+            Integer year = resultSet.getObject("release_year", Integer.class);
+            if (year != null) {
+                generator.writeNumberField("year", year);
+            } else {
+                generator.writeNullField("year");
+            }
+            writeStringArray(generator, "artistNames", resultSet.getArray("artist_names"));
+            writeStringArray(generator, "coverKeys", resultSet.getArray("cover_keys"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao escrever exportação de álbuns", e);
+        }
+    }
+
+    private void writeStringArray(JsonGenerator generator, String field, Array array) throws SQLException, IOException {
+        generator.writeArrayFieldStart(field);
+        if (array != null) {
+            for (Object value : (Object[]) array.getArray()) {
+                generator.writeString(String.valueOf(value));
+            }
+            array.free();
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,235 @@
+package com.wendrewnick.musicmanager.service.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+import com.wendrewnick.musicmanager.dto.AlbumImportDTO;
+import com.wendrewnick.musicmanager.dto.AlbumImportResultDTO;
+import com.wendrewnick.musicmanager.entity.Album;
+import com.wendrewnick.musicmanager.entity.Artist;
+import com.wendrewnick.musicmanager.repository.ArtistRepository;
+import com.wendrewnick.musicmanager.service.AlbumImportService;
+import com.wendrewnick.musicmanager.service.AlbumNotificationPublisher;
+import com.wendrewnick.musicmanager.service.ThumbnailService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em lote: a entrada é lida em streaming e gravada em lotes de tamanho fixo. Por lote, os artistas
+ * referenciados saem de uma única consulta IN (ids e nomes) e os INSERTs de albums, album_artists e album_images
+ * vão em batch JDBC ({@code hibernate.jdbc.batch_size} com {@code order_inserts}). O contexto de persistência é
+ * limpo a cada lote, então a memória não cresce com o tamanho da importação.
+ * <p>
+ * Cada álbum passa pelo {@link Validator} com as regras de {@link AlbumImportDTO}; um erro do banco ao gravar
+ * um lote desfaz só aquele lote, que entra no relatório como não gravado, e a importação segue. As miniaturas das
+ * capas referenciadas são agendadas depois do commit de cada lote.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AlbumImportServiceImpl implements AlbumImportService {
+
+    private final ArtistRepository artistRepository;
+    private final AlbumNotificationPublisher notificationPublisher;
+    private final ThumbnailService thumbnailService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private record Item(int position, AlbumImportDTO album) {
+    }
+
+    @Override
+    public AlbumImportResultDTO importAlbums(InputStream inputStream, int chunkSize) {
+        List<AlbumImportResultDTO.Chunk> chunks = new ArrayList<>();
+        List<Item> pending = new ArrayList<>(chunkSize);
+        String error = null;
+        int position = 0;
+
+        ObjectReader reader = objectMapper.readerFor(AlbumImportDTO.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        // Aceita tanto um array JSON quanto objetos separados por linha (NDJSON)
+        try (MappingIterator<AlbumImportDTO> albums = reader.readValues(inputStream)) {
+            while (albums.hasNextValue()) {
+                pending.add(new Item(position++, albums.nextValue()));
+                if (pending.size() == chunkSize) {
+                    chunks.add(importChunk(chunks.size(), pending));
+                    pending = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (IOException e) {
+            error = "Leitura interrompida no álbum de posição " + position + ": " + e.getMessage();
+            log.warn("Importação de álbuns interrompida: {}", e.getMessage());
+        }
+        if (!pending.isEmpty()) {
+            chunks.add(importChunk(chunks.size(), pending));
+        }
+
+        int imported = chunks.stream().mapToInt(AlbumImportResultDTO.Chunk::getImported).sum();
+        int received = chunks.stream().mapToInt(AlbumImportResultDTO.Chunk::getReceived).sum();
+        return AlbumImportResultDTO.builder()
+                .received(received)
+                .imported(imported)
+                .failed(received - imported)
+                .chunks(chunks)
+                .error(error)
+                .build();
+    }
+
+    private AlbumImportResultDTO.Chunk importChunk(int index, List<Item> items) {
+        long start = System.nanoTime();
+        List<AlbumImportResultDTO.Failure> failures = new ArrayList<>();
+        List<Album> persisted;
+        try {
+            persisted = transactionTemplate.execute(status -> {
+                List<Album> albums = persistChunk(items, failures);
+                entityManager.flush();
+                entityManager.clear();
+                return albums;
+            });
+        } catch (RuntimeException e) {
+            // Rollback do lote inteiro: nenhum álbum dele foi gravado, os lotes anteriores continuam
+            log.warn("Lote {} da importação não gravado: {}", index, e.getMessage());
+            return AlbumImportResultDTO.Chunk.builder()
+                    .index(index)
+                    .received(items.size())
+                    .imported(0)
+                    .elapsedMs((System.nanoTime() - start) / 1_000_000)
+                    .failures(failures)
+                    .error("Lote não gravado: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage())
+                    .build();
+        }
+        // Capas importadas já estão no bucket mas ainda sem miniaturas; a geração ignora as repetidas
+        persisted.stream()
+                .flatMap(album -> album.getImages().stream())
+                .distinct()
+                .forEach(thumbnailService::generateThumbnails);
+        // Publicados depois do commit do lote; o publisher agrupa os eventos em poucos frames
+        for (Album album : persisted) {
+            notificationPublisher.publish(AlbumChangeEvent.builder()
+                    .type(AlbumChangeEvent.Type.CREATED)
+                    .id(album.getId())
+                    .version(album.getVersion())
+                    .changes(AlbumServiceImpl.eventFields(album))
+                    .build());
+        }
+        return AlbumImportResultDTO.Chunk.builder()
+                .index(index)
+                .received(items.size())
+                .imported(persisted.size())
+                .elapsedMs((System.nanoTime() - start) / 1_000_000)
+                .failures(failures)
+                .build();
+    }
+
+    private List<Album> persistChunk(List<Item> items, List<AlbumImportResultDTO.Failure> failures) {
+        Set<UUID> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (Item item : items) {
+            if (item.album().getArtistIds() != null) {
+                ids.addAll(item.album().getArtistIds());
+            }
+            if (item.album().getArtistNames() != null) {
+                item.album().getArtistNames().forEach(name -> names.add(normalize(name)));
+            }
+        }
+        Map<UUID, Artist> byId = new HashMap<>();
+        Map<String, Artist> byName = new HashMap<>();
+        if (!ids.isEmpty() || !names.isEmpty()) {
+            for (Artist artist : artistRepository.findAllByIdInOrLowerNameIn(ids, names)) {
+                byId.put(artist.getId(), artist);
+                byName.put(normalize(artist.getName()), artist);
+            }
+        }
+
+        List<Album> albums = new ArrayList<>(items.size());
+        for (Item item : items) {
+            AlbumImportDTO dto = item.album();
+            String problem = validate(dto);
+            Set<Artist> artists = new HashSet<>();
+            if (problem == null) {
+                problem = resolveArtists(dto, byId, byName, artists);
+            }
+            if (problem != null) {
+                failures.add(AlbumImportResultDTO.Failure.builder().position(item.position()).message(problem).build());
+                continue;
+            }
+            Album album = Album.builder()
+                    .title(dto.getTitle().trim())
+                    .year(dto.getYear())
+                    .artists(artists)
+                    .images(dto.getCoverKeys() != null ? new HashSet<>(dto.getCoverKeys()) : new HashSet<>())
+                    .build();
+            entityManager.persist(album);
+            albums.add(album);
+        }
+        return albums;
+    }
+
+    private String validate(AlbumImportDTO dto) {
+        if (dto == null) {
+            return "Álbum vazio";
+        }
+        Set<ConstraintViolation<AlbumImportDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        // Ordem estável no relatório, independente da ordem de avaliação do validador
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String resolveArtists(AlbumImportDTO dto, Map<UUID, Artist> byId, Map<String, Artist> byName,
+                                         Set<Artist> artists) {
+        if (dto.getArtistIds() != null) {
+            for (UUID id : dto.getArtistIds()) {
+                Artist artist = byId.get(id);
+                if (artist == null) {
+                    return "Artista não encontrado: " + id;
+                }
+                artists.add(artist);
+            }
+        }
+        if (dto.getArtistNames() != null) {
+            for (String name : dto.getArtistNames()) {
+                Artist artist = byName.get(normalize(name));
+                if (artist == null) {
+                    return "Artista não encontrado: " + name;
+                }
+                artists.add(artist);
+            }
+        }
+        return null;
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,27 +1,50 @@
 package com.wendrewnick.musicmanager.service.impl;
 
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+import com.wendrewnick.musicmanager.dto.AlbumCoverDTO;
 import com.wendrewnick.musicmanager.dto.AlbumDTO;
+import com.wendrewnick.musicmanager.dto.CoverUploadUrlDTO;
+import com.wendrewnick.musicmanager.dto.CursorPageDTO;
 import com.wendrewnick.musicmanager.entity.Album;
 import com.wendrewnick.musicmanager.entity.Artist;
 import com.wendrewnick.musicmanager.exception.BusinessException;
 import com.wendrewnick.musicmanager.exception.ResourceNotFoundException;
+import com.wendrewnick.musicmanager.exception.StorageException;
 import com.wendrewnick.musicmanager.repository.AlbumRepository;
 import com.wendrewnick.musicmanager.repository.ArtistRepository;
+import com.wendrewnick.musicmanager.repository.KeysetRow;
+import com.wendrewnick.musicmanager.service.AlbumNotificationPublisher;
 import com.wendrewnick.musicmanager.service.AlbumService;
 import com.wendrewnick.musicmanager.service.MinioService;
+import com.wendrewnick.musicmanager.service.ThumbnailService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,25 +52,61 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AlbumServiceImpl implements AlbumService {
 
+    static final int MAX_PARALLEL_UPLOADS = 8;
+    private static final long MAX_COVER_SIZE_BYTES = 5 * 1024 * 1024;
+
+    private static final Map<String, Function<String, Object>> CURSOR_SORT_KEYS = Map.of(
+            "title", key -> key,
+            "year", Integer::valueOf,
+            "createdAt", LocalDateTime::parse);
+
     private final AlbumRepository albumRepository;
     private final ArtistRepository artistRepository;
     private final MinioService minioService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final AlbumNotificationPublisher notificationPublisher;
+    private final ThumbnailService thumbnailService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService uploadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore uploadPermits = new Semaphore(MAX_PARALLEL_UPLOADS);
 
     @Transactional(readOnly = true)
     @Override
     public Page<AlbumDTO> findAll(String title, String artistName, Boolean soloOrBand, Pageable pageable) {
-        Page<Album> albums;
+        Page<UUID> ids;
         if (title != null && !title.isBlank()) {
-            albums = albumRepository.findByTitleContainingIgnoreCase(title, pageable);
+            ids = albumRepository.findIdsByTitleContainingIgnoreCase(title, pageable);
         } else if (artistName != null && !artistName.isBlank()) {
-            albums = albumRepository.findByArtistsNameContainingIgnoreCase(artistName, pageable);
+            ids = albumRepository.findIdsByArtistsNameContainingIgnoreCase(artistName, pageable);
         } else if (soloOrBand != null) {
-            albums = albumRepository.findByArtistType(soloOrBand, pageable);
+            ids = albumRepository.findIdsByArtistType(soloOrBand, pageable);
         } else {
-            albums = albumRepository.findAll(pageable);
+            ids = albumRepository.findAllIds(pageable);
         }
-        return albums.map(this::toDTO);
+        Map<UUID, Album> albums = ids.isEmpty() ? Map.of()
+                : albumRepository.findAllWithArtistsAndImagesByIdIn(ids.getContent()).stream()
+                        .collect(Collectors.toMap(Album::getId, Function.identity()));
+        Set<String> withThumbnails = withThumbnails(albums.values());
+        return ids.map(id -> toDTO(albums.get(id), withThumbnails));
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPageDTO<AlbumDTO> findAllByCursor(String title, String artistName, Boolean soloOrBand,
+                                                   String after, int size, Sort sort) {
+        KeysetCursor.validateSize(size);
+        KeysetCursor cursor = after != null && !after.isBlank()
+                ? KeysetCursor.decode(after, CURSOR_SORT_KEYS)
+                : KeysetCursor.first(sort, CURSOR_SORT_KEYS);
+        List<KeysetRow> rows = albumRepository.findKeysetPage(title, artistName, soloOrBand,
+                cursor.sortProperty(), cursor.ascending(), cursor.key(), cursor.id(), size + 1);
+        return KeysetCursor.toPage(cursor, rows, size, this::loadInOrder);
+    }
+
+    private List<AlbumDTO> loadInOrder(List<UUID> ids) {
+        Map<UUID, Album> albums = albumRepository.findAllWithArtistsAndImagesByIdIn(ids).stream()
+                .collect(Collectors.toMap(Album::getId, Function.identity()));
+        Set<String> withThumbnails = withThumbnails(albums.values());
+        return ids.stream().map(id -> toDTO(albums.get(id), withThumbnails)).toList();
     }
 
     @Transactional(readOnly = true)
@@ -56,7 +115,6 @@ public class AlbumServiceImpl implements AlbumService {
         return toDTO(getEntityById(id));
     }
 
-    @Transactional
     @Override
     public AlbumDTO create(AlbumDTO albumDTO, List<MultipartFile> images) {
         if (albumDTO == null) {
@@ -73,7 +131,6 @@ public class AlbumServiceImpl implements AlbumService {
         }
 
         Set<Artist> artists = new HashSet<>(artistList);
-        Set<String> imageKeys = new HashSet<>();
 
         if (images != null && !images.isEmpty()) {
             for (MultipartFile img : images) {
@@ -83,38 +140,41 @@ public class AlbumServiceImpl implements AlbumService {
                 if (img.getContentType() == null || !img.getContentType().startsWith("image/")) {
                     throw new BusinessException("Todos os arquivos devem ser imagens válidas (PNG, JPG, etc).");
                 }
-                if (img.getSize() > 5 * 1024 * 1024) { // 5MB
+                if (img.getSize() > MAX_COVER_SIZE_BYTES) {
                     String filename = img.getOriginalFilename() != null ? img.getOriginalFilename() : "arquivo";
                     throw new BusinessException("A imagem " + filename + " excede 5MB.");
                 }
-                String key = minioService.uploadFile(img);
-                imageKeys.add(key);
             }
         }
 
+        // Uploads terminam antes de qualquer escrita no banco; a conexão só é usada pelo save
+        List<String> imageKeys = images != null && !images.isEmpty() ? uploadAll(images) : List.of();
+
         Album album = Album.builder()
                 .title(albumDTO.getTitle())
                 .year(albumDTO.getYear())
                 .artists(artists)
-                .images(imageKeys)
+                .images(new HashSet<>(imageKeys))
                 .build();
 
+        // Se o insert falhar, as capas enviadas ficam sem referência e saem na coleta de órfãos
         Album savedAlbum = albumRepository.save(album);
-        AlbumDTO dto = toDTO(savedAlbum);
+        imageKeys.forEach(thumbnailService::generateThumbnails);
+        notificationPublisher.publish(AlbumChangeEvent.builder()
+                .type(AlbumChangeEvent.Type.CREATED)
+                .id(savedAlbum.getId())
+                .version(savedAlbum.getVersion())
+                .changes(eventFields(savedAlbum))
+                .build());
 
-        try {
-            messagingTemplate.convertAndSend("/topic/albums", dto);
-        } catch (Exception e) {
-            log.warn("Erro ao enviar notificação WebSocket, continuando...", e);
-        }
-
-        return dto;
+        return toDTO(savedAlbum);
     }
 
     @Transactional
     @Override
     public AlbumDTO update(UUID id, AlbumDTO dto) {
         Album album = getEntityById(id);
+        Map<String, Object> before = eventFields(album);
         album.setTitle(dto.getTitle());
         album.setYear(dto.getYear());
 
@@ -125,19 +185,18 @@ public class AlbumServiceImpl implements AlbumService {
             }
             album.setArtists(new HashSet<>(artists));
         }
-        return toDTO(albumRepository.save(album));
+        // Flush para a versão já vir incrementada no evento
+        Album saved = albumRepository.saveAndFlush(album);
+        publishUpdated(saved, before);
+        return toDTO(saved);
     }
 
-    @Transactional
     @Override
     public void addCovers(UUID id, List<MultipartFile> files) {
-        Album album = getEntityById(id);
+        requireExists(id);
         if (files == null || files.isEmpty()) {
             throw new BusinessException("Nenhum arquivo enviado");
         }
-        if (album.getImages() == null) {
-            album.setImages(new HashSet<>());
-        }
         for (MultipartFile file : files) {
             if (file == null || file.isEmpty()) {
                 throw new BusinessException("Arquivo não pode ser vazio");
@@ -145,12 +204,77 @@ public class AlbumServiceImpl implements AlbumService {
             if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
                 throw new BusinessException("Arquivo deve ser uma imagem");
             }
-            if (file.getSize() > 5 * 1024 * 1024) {
+            if (file.getSize() > MAX_COVER_SIZE_BYTES) {
                 throw new BusinessException("Imagem excede 5MB");
             }
-            album.getImages().add(minioService.uploadFile(file));
         }
-        albumRepository.save(album);
+
+        List<String> keys = uploadAll(files);
+        Album saved = attachCovers(id, keys);
+        keys.forEach(thumbnailService::generateThumbnails);
+        publishCoversChanged(saved);
+    }
+
+    @Override
+    public List<CoverUploadUrlDTO> createCoverUploadUrls(UUID id, List<String> fileNames) {
+        getEntityById(id);
+        return fileNames.stream()
+                .map(fileName -> {
+                    String key = coverKeyPrefix(id) + UUID.randomUUID() + "_" + sanitizeFileName(fileName);
+                    AlbumCoverDTO upload = minioService.getPresignedUploadUrl(key);
+                    return CoverUploadUrlDTO.builder()
+                            .fileName(fileName)
+                            .key(key)
+                            .uploadUrl(upload.getUrl())
+                            .expiresAt(upload.getExpiresAt())
+                            .build();
+                })
+                .toList();
+    }
+
+    @Override
+    public void commitCovers(UUID id, List<String> keys) {
+        requireExists(id);
+        String prefix = coverKeyPrefix(id);
+        for (String key : keys) {
+            if (!key.startsWith(prefix) || key.contains("..")) {
+                throw new BusinessException("A chave " + key + " não pertence a este álbum. Use as chaves retornadas por upload-urls.");
+            }
+        }
+
+        // Os bytes nunca passaram pela API: tamanho e tipo são conferidos no próprio MinIO
+        for (String key : keys) {
+            MinioService.StoredObject stored = minioService.statFile(key)
+                    .orElseThrow(() -> new BusinessException("Arquivo " + key + " não encontrado no storage. Conclua o upload antes do commit."));
+            if (stored.contentType() == null || !stored.contentType().startsWith("image/")) {
+                minioService.deleteFile(key);
+                throw new BusinessException("Arquivo " + key + " deve ser uma imagem");
+            }
+            if (stored.size() > MAX_COVER_SIZE_BYTES) {
+                minioService.deleteFile(key);
+                throw new BusinessException("Imagem " + key + " excede 5MB");
+            }
+        }
+
+        Album saved = attachCovers(id, keys);
+        keys.forEach(thumbnailService::generateThumbnails);
+        publishCoversChanged(saved);
+    }
+
+    /**
+     * Recarrega o álbum e anexa as capas numa transação curta, depois do upload ou da conferência no MinIO.
+     * Segurar a entidade durante o I/O lento transformaria qualquer edição concorrente num conflito de versão.
+     */
+    private Album attachCovers(UUID id, List<String> keys) {
+        return transactionTemplate.execute(status -> {
+            Album album = getEntityById(id);
+            if (album.getImages() == null) {
+                album.setImages(new HashSet<>());
+            }
+            album.getImages().addAll(keys);
+            // Flush para a versão já vir incrementada no evento
+            return albumRepository.saveAndFlush(album);
+        });
     }
 
     @Override
@@ -164,13 +288,120 @@ public class AlbumServiceImpl implements AlbumService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
     @Override
+    @Transactional
     public void delete(UUID id) {
+        Long version = albumRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Álbum não encontrado com o ID: " + id));
+        // As capas não saem do MinIO aqui: outro álbum pode estar reutilizando o mesmo conteúdo neste instante.
+        // Sem referência em album_images, a coleta de órfãos as remove depois da carência.
+        if (albumRepository.deleteByIdAndVersion(id, version) == 0) {
+            throw new ObjectOptimisticLockingFailureException(Album.class, id);
+        }
+        // Versão da última gravação, a mesma que a exclusão conferiu
+        notificationPublisher.publish(AlbumChangeEvent.builder()
+                .type(AlbumChangeEvent.Type.DELETED)
+                .id(id)
+                .version(version)
+                .build());
+    }
+
+    @PreDestroy
+    void shutdownUploadExecutor() {
+        uploadExecutor.shutdown();
+    }
+
+    private static String coverKeyPrefix(UUID albumId) {
+        return "albums/" + albumId + "/";
+    }
+
+    private static String sanitizeFileName(String fileName) {
+        String sanitized = fileName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return sanitized.length() > 100 ? sanitized.substring(sanitized.length() - 100) : sanitized;
+    }
+
+    /**
+     * Envia os arquivos em paralelo (no máximo {@value #MAX_PARALLEL_UPLOADS} simultâneos na aplicação) e
+     * espera todos terminarem. Se algum falhar, relança o erro; os já enviados ficam para a coleta de órfãos.
+     */
+    private List<String> uploadAll(List<MultipartFile> files) {
+        List<Future<String>> uploads = files.stream()
+                .map(file -> uploadExecutor.submit(() -> uploadWithPermit(file)))
+                .toList();
+
+        List<String> keys = new ArrayList<>(uploads.size());
+        RuntimeException failure = null;
+        for (Future<String> upload : uploads) {
+            try {
+                keys.add(upload.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException runtime ? runtime
+                            : new StorageException("Erro ao fazer upload do arquivo", e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = new StorageException("Upload interrompido", e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return keys;
+    }
+
+    private String uploadWithPermit(MultipartFile file) throws InterruptedException {
+        uploadPermits.acquire();
+        try {
+            return minioService.uploadFile(file);
+        } finally {
+            uploadPermits.release();
+        }
+    }
+
+    /**
+     * Campos que vão nos eventos de /topic/albums. Capas entram só como contagem: assinar URLs para cada
+     * evento e cada assinante seria desperdício, o cliente as busca quando precisa.
+     */
+    static Map<String, Object> eventFields(Album album) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", album.getTitle());
+        fields.put("year", album.getYear());
+        fields.put("artistIds", album.getArtists() == null ? List.of()
+                : album.getArtists().stream().map(Artist::getId).sorted().toList());
+        fields.put("coverCount", album.getImages() == null ? 0 : album.getImages().size());
+        return fields;
+    }
+
+    private void publishUpdated(Album saved, Map<String, Object> before) {
+        Map<String, Object> changes = new LinkedHashMap<>(eventFields(saved));
+        changes.entrySet().removeIf(field -> Objects.equals(field.getValue(), before.get(field.getKey())));
+        if (changes.isEmpty()) {
+            return;
+        }
+        notificationPublisher.publish(AlbumChangeEvent.builder()
+                .type(AlbumChangeEvent.Type.UPDATED)
+                .id(saved.getId())
+                .version(saved.getVersion())
+                .changes(changes)
+                .build());
+    }
+
+    private void publishCoversChanged(Album saved) {
+        notificationPublisher.publish(AlbumChangeEvent.builder()
+                .type(AlbumChangeEvent.Type.UPDATED)
+                .id(saved.getId())
+                .version(saved.getVersion())
+                .changes(Map.of("coverCount", saved.getImages().size()))
+                .build());
+    }
+
+    private void requireExists(UUID id) {
         if (!albumRepository.existsById(id)) {
             throw new ResourceNotFoundException("Álbum não encontrado com o ID: " + id);
         }
-        albumRepository.deleteById(id);
     }
 
     private Album getEntityById(UUID id) {
@@ -179,9 +410,24 @@ public class AlbumServiceImpl implements AlbumService {
     }
 
     private AlbumDTO toDTO(Album album) {
+        return toDTO(album, withThumbnails(List.of(album)));
+    }
+
+    // Uma consulta por página, não por álbum
+    private Set<String> withThumbnails(Collection<Album> albums) {
+        Set<String> imageKeys = albums.stream()
+                .filter(album -> album.getImages() != null)
+                .flatMap(album -> album.getImages().stream())
+                .collect(Collectors.toSet());
+        return imageKeys.isEmpty() ? Set.of() : thumbnailService.withThumbnails(imageKeys);
+    }
+
+    private AlbumDTO toDTO(Album album, Set<String> withThumbnails) {
         List<String> presignedUrls = null;
+        Map<Integer, List<String>> thumbnailUrls = null;
         if (album.getImages() != null && !album.getImages().isEmpty()) {
-            presignedUrls = album.getImages().stream()
+            List<String> imageKeys = List.copyOf(album.getImages());
+            presignedUrls = imageKeys.stream()
                     .map(imageKey -> {
                         try {
                             return minioService.getPresignedUrl(imageKey);
@@ -192,6 +438,29 @@ public class AlbumServiceImpl implements AlbumService {
                     })
                     .filter(url -> url != null)
                     .collect(Collectors.toList());
+
+            // Miniaturas ainda não geradas (ou que falharam) ficam de fora, em vez de URLs para objetos inexistentes
+            List<String> thumbnailKeys = imageKeys.stream().filter(withThumbnails::contains).toList();
+            thumbnailUrls = new LinkedHashMap<>();
+            for (int size : ThumbnailService.SIZES) {
+                List<String> urls = thumbnailKeys.stream()
+                        .map(imageKey -> {
+                            try {
+                                return minioService.getThumbnailUrl(imageKey, size);
+                            } catch (Exception e) {
+                                log.warn("Erro ao gerar URL de miniatura para imagem: {}", imageKey, e);
+                                return null;
+                            }
+                        })
+                        .filter(url -> url != null)
+                        .toList();
+                if (!urls.isEmpty()) {
+                    thumbnailUrls.put(size, urls);
+                }
+            }
+            if (thumbnailUrls.isEmpty()) {
+                thumbnailUrls = null;
+            }
         }
 
         return AlbumDTO.builder()
@@ -201,6 +470,7 @@ public class AlbumServiceImpl implements AlbumService {
                 .artistIds(album.getArtists().stream().map(Artist::getId).collect(Collectors.toList()))
                 .artistNames(album.getArtists().stream().map(Artist::getName).collect(Collectors.toList()))
                 .coverUrls(presignedUrls)
+                .thumbnailUrls(thumbnailUrls)
                 .build();
     }
 }
@@ -1,22 +1,34 @@
 package com.wendrewnick.musicmanager.service.impl;
 
 import com.wendrewnick.musicmanager.dto.ArtistDTO;
+import com.wendrewnick.musicmanager.dto.CursorPageDTO;
 import com.wendrewnick.musicmanager.entity.Artist;
 import com.wendrewnick.musicmanager.exception.BusinessException;
 import com.wendrewnick.musicmanager.exception.ResourceNotFoundException;
 import com.wendrewnick.musicmanager.repository.ArtistRepository;
+import com.wendrewnick.musicmanager.repository.KeysetRow;
 import com.wendrewnick.musicmanager.service.ArtistService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ArtistServiceImpl implements ArtistService {
 
+    private static final Map<String, Function<String, Object>> CURSOR_SORT_KEYS = Map.of(
+            "name", key -> key,
+            "createdAt", LocalDateTime::parse);
+
     private final ArtistRepository artistRepository;
 
     @Override
@@ -37,6 +49,21 @@ public class ArtistServiceImpl implements ArtistService {
         return artists.map(this::toDTO);
     }
 
+    @Override
+    public CursorPageDTO<ArtistDTO> findAllByCursor(String name, String after, int size, Sort sort) {
+        KeysetCursor.validateSize(size);
+        KeysetCursor cursor = after != null && !after.isBlank()
+                ? KeysetCursor.decode(after, CURSOR_SORT_KEYS)
+                : KeysetCursor.first(sort, CURSOR_SORT_KEYS);
+        List<KeysetRow> rows = artistRepository.findKeysetPage(name,
+                cursor.sortProperty(), cursor.ascending(), cursor.key(), cursor.id(), size + 1);
+        return KeysetCursor.toPage(cursor, rows, size, ids -> {
+            Map<UUID, Artist> artists = artistRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Artist::getId, Function.identity()));
+            return ids.stream().map(id -> toDTO(artists.get(id))).toList();
+        });
+    }
+
     @Override
     public ArtistDTO findById(UUID id) {
         return toDTO(getEntityById(id));
@@ -5,6 +5,7 @@ import com.wendrewnick.musicmanager.dto.AuthResponse;
 import com.wendrewnick.musicmanager.exception.InvalidRefreshTokenException;
 import com.wendrewnick.musicmanager.repository.UserRepository;
 import com.wendrewnick.musicmanager.security.JwtService;
+import com.wendrewnick.musicmanager.security.TokenVersionCache;
 import com.wendrewnick.musicmanager.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,6 +19,7 @@ public class AuthServiceImpl implements AuthService {
     private final UserRepository userRepository;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final TokenVersionCache tokenVersionCache;
 
     @Override
     public AuthResponse authenticate(AuthRequest request) {
@@ -55,4 +57,14 @@ public class AuthServiceImpl implements AuthService {
         }
         throw new InvalidRefreshTokenException("Refresh token inválido ou expirado");
     }
+
+    @Override
+    public void logout(String username) {
+        var user = userRepository.findByUsername(username)
+                .orElseThrow();
+        // Revoga todos os tokens (access e refresh) emitidos até aqui; a gravação invalida o cache de usuários
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        tokenVersionCache.revoke(username, user.getTokenVersion());
+    }
 }
@@ -0,0 +1,84 @@
+package com.wendrewnick.musicmanager.service.impl;
+
+import com.wendrewnick.musicmanager.dto.CursorPageDTO;
+import com.wendrewnick.musicmanager.exception.BusinessException;
+import com.wendrewnick.musicmanager.repository.KeysetRow;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Posição de uma listagem por keyset: campo e direção de ordenação, valor da chave e ID da última linha entregue.
+ * Trafega como token opaco (Base64 URL-safe); o cliente só repassa o {@code nextCursor} recebido.
+ */
+record KeysetCursor(String sortProperty, boolean ascending, Object key, UUID id) {
+
+    static final int MAX_SIZE = 100;
+
+    private static final String SEPARATOR = "|";
+
+    static KeysetCursor first(Sort sort, Map<String, Function<String, Object>> sortKeys) {
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() != 1) {
+            throw new BusinessException("Paginação por cursor aceita exatamente um campo de ordenação: " + sortKeys.keySet());
+        }
+        Sort.Order order = orders.get(0);
+        if (!sortKeys.containsKey(order.getProperty())) {
+            throw new BusinessException("Ordenação não suportada por cursor: " + order.getProperty()
+                    + ". Use um de " + sortKeys.keySet());
+        }
+        return new KeysetCursor(order.getProperty(), order.isAscending(), null, null);
+    }
+
+    static KeysetCursor decode(String token, Map<String, Function<String, Object>> sortKeys) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + SEPARATOR, 4);
+            Function<String, Object> keyParser = sortKeys.get(parts[0]);
+            if (parts.length != 4 || keyParser == null || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+                throw new IllegalArgumentException(decoded);
+            }
+            return new KeysetCursor(parts[0], "asc".equals(parts[1]), keyParser.apply(parts[3]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Cursor inválido. Use o nextCursor retornado pela página anterior.");
+        }
+    }
+
+    static int validateSize(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BusinessException("size deve estar entre 1 e " + MAX_SIZE);
+        }
+        return size;
+    }
+
+    /**
+     * Monta a página a partir de até {@code size + 1} linhas: a linha excedente só indica que há próxima página.
+     */
+    static <T> CursorPageDTO<T> toPage(KeysetCursor cursor, List<KeysetRow> rows, int size,
+                                       Function<List<UUID>, List<T>> loader) {
+        boolean hasNext = rows.size() > size;
+        List<KeysetRow> pageRows = hasNext ? rows.subList(0, size) : rows;
+        List<T> content = pageRows.isEmpty() ? List.of()
+                : loader.apply(pageRows.stream().map(KeysetRow::id).toList());
+        return CursorPageDTO.<T>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursor.after(pageRows.get(pageRows.size() - 1)).encode() : null)
+                .build();
+    }
+
+    KeysetCursor after(KeysetRow row) {
+        return new KeysetCursor(sortProperty, ascending, row.sortKey(), row.id());
+    }
+
+    String encode() {
+        String raw = sortProperty + SEPARATOR + (ascending ? "asc" : "desc") + SEPARATOR + id + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
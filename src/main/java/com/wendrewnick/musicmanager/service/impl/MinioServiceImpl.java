@@ -1,65 +1,233 @@
 package com.wendrewnick.musicmanager.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.wendrewnick.musicmanager.dto.AlbumCoverDTO;
 import com.wendrewnick.musicmanager.exception.StorageException;
 import com.wendrewnick.musicmanager.service.MinioService;
+import com.wendrewnick.musicmanager.service.ThumbnailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
+import io.minio.Directive;
 import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.UUID;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
 public class MinioServiceImpl implements MinioService {
 
+    private static final int PRESIGNED_URL_EXPIRY_MINUTES = 30;
+    private static final int PRESIGNED_UPLOAD_EXPIRY_MINUTES = 15;
+    private static final String CONTENT_KEY_PREFIX = "covers/sha256/";
+
     private final MinioClient minioClient;
     private final MinioClient minioSignerClient;
+    private final MeterRegistry meterRegistry;
 
     @Value("${minio.bucket-name}")
     private String bucketName;
 
+    @Value("${minio.presigned-url-cache.max-size:10000}")
+    private long presignedUrlCacheMaxSize;
+
+    @Value("${minio.presigned-url-cache.ttl-minutes:20}")
+    private long presignedUrlCacheTtlMinutes;
+
+    @Value("${storage.gc.grace-period-hours:24}")
+    private long gcGracePeriodHours;
+
+    private Cache<String, String> presignedUrlCache;
+
+    // Substituível nos testes para avançar o relógio do cache
+    private Ticker ticker = Ticker.systemTicker();
+
+    @PostConstruct
+    void initPresignedUrlCache() {
+        if (presignedUrlCacheTtlMinutes >= PRESIGNED_URL_EXPIRY_MINUTES) {
+            throw new IllegalStateException("minio.presigned-url-cache.ttl-minutes deve ser menor que a expiração das URLs ("
+                    + PRESIGNED_URL_EXPIRY_MINUTES + " min)");
+        }
+        // Entradas expiram bem antes da URL, garantindo que o cliente sempre recebe uma URL ainda válida
+        presignedUrlCache = Caffeine.newBuilder()
+                .maximumSize(presignedUrlCacheMaxSize)
+                .expireAfterWrite(presignedUrlCacheTtlMinutes, TimeUnit.MINUTES)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, presignedUrlCache, "minio.presigned-urls");
+    }
+
     @Override
     public String uploadFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new StorageException("Arquivo não pode ser vazio");
         }
 
-        String originalFilename = file.getOriginalFilename();
-        if (originalFilename == null || originalFilename.isBlank()) {
-            originalFilename = "arquivo";
+        // Chave derivada do conteúdo: a mesma capa enviada para vários álbuns é armazenada uma única vez.
+        // O hash sai de uma leitura local do arquivo (capas têm no máximo 5 MB), então conteúdo repetido
+        // custa só um stat, sem enviar os bytes de novo.
+        String fileName = CONTENT_KEY_PREFIX + sha256Hex(file);
+        try {
+            Optional<StatObjectResponse> existing = stat(fileName);
+            if (existing.isPresent()) {
+                refreshIfAging(fileName, existing.get());
+                return fileName;
+            }
+            try (InputStream inputStream = file.getInputStream()) {
+                minioClient.putObject(
+                        PutObjectArgs.builder()
+                                .bucket(bucketName)
+                                .object(fileName)
+                                .stream(inputStream, file.getSize(), -1)
+                                .contentType(file.getContentType())
+                                .build());
+            }
+            return fileName;
+        } catch (StorageException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new StorageException("Erro ao fazer upload do arquivo", e);
+        }
+    }
+
+    private static String sha256Hex(MultipartFile file) {
+        MessageDigest digest = sha256();
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new StorageException("Erro ao ler o arquivo", e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * A coleta de órfãos só remove objetos mais velhos que a carência. Um conteúdo reaproveitado que já passou
+     * da metade dela é renovado (cópia sobre ele mesmo) para não ser removido entre este upload e o commit do
+     * álbum; o caso comum, uma capa recente repetida, fica só no stat.
+     */
+    private void refreshIfAging(String objectName, StatObjectResponse stat) throws Exception {
+        Instant refreshBefore = Instant.now().minus(Duration.ofHours(gcGracePeriodHours).dividedBy(2));
+        if (stat.lastModified() != null && stat.lastModified().toInstant().isAfter(refreshBefore)) {
+            return;
+        }
+        minioClient.copyObject(
+                CopyObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .source(CopySource.builder().bucket(bucketName).object(objectName).build())
+                        .metadataDirective(Directive.REPLACE)
+                        .headers(Map.of("Content-Type", stat.contentType() != null ? stat.contentType() : "application/octet-stream"))
+                        .build());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void deleteFile(String objectName) {
+        try {
+            minioClient.removeObject(
+                    RemoveObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .build());
+            presignedUrlCache.invalidate(objectName);
+        } catch (Exception e) {
+            throw new StorageException("Erro ao remover o arquivo", e);
         }
+    }
 
-        String fileName = UUID.randomUUID() + "_" + originalFilename;
-        try (InputStream inputStream = file.getInputStream()) {
-            minioClient.putObject(
-                    PutObjectArgs.builder()
+    @Override
+    public AlbumCoverDTO getPresignedUploadUrl(String objectName) {
+        try {
+            Instant expiresAt = Instant.now().plus(PRESIGNED_UPLOAD_EXPIRY_MINUTES, ChronoUnit.MINUTES);
+            String url = minioSignerClient.getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(Method.PUT)
                             .bucket(bucketName)
-                            .object(fileName)
-                            .stream(inputStream, file.getSize(), -1)
-                            .contentType(file.getContentType())
+                            .object(objectName)
+                            .expiry(PRESIGNED_UPLOAD_EXPIRY_MINUTES, TimeUnit.MINUTES)
                             .build());
-            return fileName;
+            return AlbumCoverDTO.builder().url(url).expiresAt(expiresAt).build();
         } catch (Exception e) {
-            throw new StorageException("Erro ao fazer upload do arquivo", e);
+            throw new StorageException("Erro ao gerar URL pré-assinada de upload", e);
+        }
+    }
+
+    @Override
+    public Optional<StoredObject> statFile(String objectName) {
+        return stat(objectName).map(stat -> new StoredObject(stat.size(), stat.contentType()));
+    }
+
+    private Optional<StatObjectResponse> stat(String objectName) {
+        try {
+            return Optional.of(minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .build()));
+        } catch (ErrorResponseException e) {
+            String code = e.errorResponse().code();
+            if ("NoSuchKey".equals(code) || "NoSuchObject".equals(code)) {
+                return Optional.empty();
+            }
+            throw new StorageException("Erro ao consultar o arquivo", e);
+        } catch (Exception e) {
+            throw new StorageException("Erro ao consultar o arquivo", e);
         }
     }
 
     @Override
     public String getPresignedUrl(String objectName) {
+        return presignedUrlCache.get(objectName, this::signGetUrl);
+    }
+
+    @Override
+    public String getThumbnailUrl(String objectName, int size) {
+        return getPresignedUrl(ThumbnailService.thumbnailKey(objectName, size));
+    }
+
+    private String signGetUrl(String objectName) {
         try {
             return minioSignerClient.getPresignedObjectUrl(
                     GetPresignedObjectUrlArgs.builder()
                             .method(Method.GET)
                             .bucket(bucketName)
                             .object(objectName)
-                            .expiry(30, TimeUnit.MINUTES)
+                            .expiry(PRESIGNED_URL_EXPIRY_MINUTES, TimeUnit.MINUTES)
                             .build());
         } catch (Exception e) {
             throw new StorageException("Erro ao gerar URL pré-assinada", e);
@@ -0,0 +1,185 @@
+package com.wendrewnick.musicmanager.service.impl;
+
+import com.wendrewnick.musicmanager.exception.StorageException;
+import com.wendrewnick.musicmanager.repository.CoverThumbnailRepository;
+import com.wendrewnick.musicmanager.service.MinioService;
+import com.wendrewnick.musicmanager.service.ThumbnailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ThumbnailServiceImpl implements ThumbnailService {
+
+    private final MinioClient minioClient;
+    private final MinioService minioService;
+    private final CoverThumbnailRepository coverThumbnailRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${minio.bucket-name}")
+    private String bucketName;
+
+    @Value("${thumbnails.workers:2}")
+    private int workers;
+
+    @Value("${thumbnails.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void initExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // Poucos workers limitam quantas imagens estão decodificadas ao mesmo tempo; com a fila cheia
+        // quem enviou a capa gera as miniaturas, segurando novos uploads em vez de acumular tarefas
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "thumbnail-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "thumbnails");
+    }
+
+    @PreDestroy
+    void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void generateThumbnails(String objectName) {
+        executor.execute(() -> {
+            try {
+                generate(objectName);
+            } catch (Exception e) {
+                log.warn("Erro ao gerar miniaturas de {}", objectName, e);
+            }
+        });
+    }
+
+    @Override
+    public Set<String> withThumbnails(Collection<String> objectNames) {
+        if (objectNames.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(coverThumbnailRepository.findImageKeysIn(objectNames));
+    }
+
+    void generate(String objectName) throws Exception {
+        // Capas são deduplicadas por conteúdo: a mesma chave pode chegar várias vezes
+        if (minioService.statFile(ThumbnailService.thumbnailKey(objectName, SIZES.get(SIZES.size() - 1))).isPresent()) {
+            coverThumbnailRepository.markGenerated(objectName);
+            return;
+        }
+        BufferedImage image;
+        try (InputStream input = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .build());
+             ImageInputStream imageInput = ImageIO.createImageInputStream(input)) {
+            image = readSubsampled(imageInput, SIZES.get(0));
+        }
+        if (image == null) {
+            log.warn("Formato de imagem não suportado para miniatura: {}", objectName);
+            return;
+        }
+        // Do maior para o menor: cada miniatura é reduzida a partir da anterior
+        for (int size : SIZES) {
+            image = scaleToFit(image, size);
+            upload(ThumbnailService.thumbnailKey(objectName, size), image);
+        }
+        // Só depois de todos os tamanhos no bucket: antes disso a capa não expõe thumbnailUrls
+        coverThumbnailRepository.markGenerated(objectName);
+    }
+
+    /**
+     * Decodifica já reduzida (subsampling do ImageReader), mantendo ao menos o dobro do lado máximo:
+     * uma capa de 5MB não vira um bitmap de centenas de MB no heap.
+     */
+    static BufferedImage readSubsampled(ImageInputStream imageInput, int maxSize) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(imageInput, true, true);
+            int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+            int step = Math.max(1, longestSide / (maxSize * 2));
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(step, step, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Reduz para caber em size x size mantendo a proporção (sem ampliar), em passos de no máximo
+     * metade para evitar serrilhado do bilinear. O resultado é RGB com fundo branco, pronto para JPEG.
+     */
+    static BufferedImage scaleToFit(BufferedImage source, int size) {
+        double scale = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(current, 0, 0, width, height, Color.WHITE, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private void upload(String key, BufferedImage image) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", output);
+        try {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(key)
+                    .stream(new ByteArrayInputStream(output.toByteArray()), output.size(), -1)
+                    .contentType("image/jpeg")
+                    .build());
+        } catch (Exception e) {
+            throw new StorageException("Erro ao enviar miniatura " + key, e);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Migration V10: Versão de token por usuário
+-- Tokens carregam a versão vigente na claim "ver"; incrementar a coluna revoga todos os tokens
+-- já emitidos para o usuário (modo jwt.stateless, que não consulta users a cada requisição).
+
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+-- Migration V12: Versão do álbum
+-- Incrementada pelo Hibernate (@Version) a cada alteração; vai nos eventos de /topic/albums para o cliente
+-- ordenar alterações, e impede que duas atualizações concorrentes sobrescrevam uma à outra.
+
+ALTER TABLE albums ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,11 @@
+-- Migration V13: Estado compartilhado da coleta de objetos órfãos
+-- Uma linha por coleta: posição da varredura no bucket e lease que garante uma única réplica varrendo por vez.
+
+CREATE TABLE storage_gc_state (
+    name VARCHAR(64) PRIMARY KEY,
+    resume_after VARCHAR(1024),
+    locked_by VARCHAR(255),
+    locked_until TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+INSERT INTO storage_gc_state (name, locked_until) VALUES ('covers', TIMESTAMP WITH TIME ZONE '1970-01-01 00:00:00+00');
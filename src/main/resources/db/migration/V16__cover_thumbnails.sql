@@ -0,0 +1,8 @@
+-- Migration V16: Capas com miniaturas já geradas
+-- A geração é assíncrona e pode falhar (formato não suportado, erro no MinIO): só as capas listadas aqui
+-- expõem thumbnailUrls. A chave é a da capa, deduplicada por conteúdo, então vale para todos os álbuns que a usam.
+
+CREATE TABLE cover_thumbnails (
+    image_key VARCHAR(255) PRIMARY KEY,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,71 @@
+package com.wendrewnick.musicmanager.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_ShouldSetVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = UuidV7Generator.timestamp(uuid);
+        assertTrue(timestamp >= before && timestamp <= after + 1, "timestamp " + timestamp);
+    }
+
+    @Test
+    void next_ShouldBeStrictlyIncreasing_WithinSameMillisecond() {
+        UuidV7Generator.Sequence sequence = new UuidV7Generator.Sequence();
+        long now = System.currentTimeMillis();
+        List<UUID> ids = new ArrayList<>();
+        // Mais ids que o contador comporta num ms: o timestamp precisa avançar sem perder a ordem
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(sequence.next(now));
+        }
+        assertStrictlyIncreasing(ids);
+        assertTrue(UuidV7Generator.timestamp(ids.get(ids.size() - 1)) > now);
+    }
+
+    @Test
+    void next_ShouldStayIncreasing_WhenClockGoesBackwards() {
+        UuidV7Generator.Sequence sequence = new UuidV7Generator.Sequence();
+        long now = System.currentTimeMillis();
+        UUID first = sequence.next(now);
+        UUID second = sequence.next(now - 5_000);
+
+        assertStrictlyIncreasing(List.of(first, second));
+    }
+
+    @Test
+    void next_ShouldNotRepeat_AcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(UuidV7Generator.next()));
+
+        assertEquals(200_000, ids.size());
+    }
+
+    // Ordem de bytes sem sinal, a mesma do tipo uuid no PostgreSQL (UUID.compareTo compara com sinal)
+    private static void assertStrictlyIncreasing(List<UUID> ids) {
+        for (int i = 1; i < ids.size(); i++) {
+            UUID previous = ids.get(i - 1);
+            UUID current = ids.get(i);
+            int cmp = Long.compareUnsigned(previous.getMostSignificantBits(), current.getMostSignificantBits());
+            if (cmp == 0) {
+                cmp = Long.compareUnsigned(previous.getLeastSignificantBits(), current.getLeastSignificantBits());
+            }
+            assertTrue(cmp < 0, previous + " >= " + current);
+        }
+    }
+}
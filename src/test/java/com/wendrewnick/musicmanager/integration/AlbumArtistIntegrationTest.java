@@ -1,10 +1,13 @@
 package com.wendrewnick.musicmanager.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wendrewnick.musicmanager.dto.AlbumDTO;
 import com.wendrewnick.musicmanager.dto.ArtistDTO;
 import com.wendrewnick.musicmanager.dto.AuthRequest;
 import com.wendrewnick.musicmanager.dto.AuthResponse;
+import com.wendrewnick.musicmanager.repository.AlbumRepository;
+import com.wendrewnick.musicmanager.repository.UserRepository;
 import com.wendrewnick.musicmanager.service.MinioService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,13 +17,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,6 +49,18 @@ class AlbumArtistIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
     @MockBean
     private MinioService minioService;
 
@@ -134,6 +159,111 @@ class AlbumArtistIntegrationTest {
                 .andExpect(jsonPath("$.data.year").value(2024));
     }
 
+    @Test
+    @DisplayName("POST /albums - id gerado é UUIDv7 e artista com id v4 já gravado continua válido")
+    void criarAlbum_DeveGerarUuidV7EAceitarArtistaComIdV4() throws Exception {
+        UUID legacyArtistId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO artists (id, name, is_band, created_at, updated_at) VALUES (?, ?, false, ?, ?)",
+                legacyArtistId, "Artista Legado " + legacyArtistId, LocalDateTime.now(), LocalDateTime.now());
+        AlbumDTO dto = AlbumDTO.builder()
+                .title("Álbum UUIDv7")
+                .year(2025)
+                .artistIds(List.of(legacyArtistId))
+                .build();
+
+        String body = mockMvc.perform(post("/api/v1/albums")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        UUID albumId = UUID.fromString(objectMapper.readTree(body).get("data").get("id").asText());
+        assertEquals(7, albumId.version());
+
+        mockMvc.perform(get("/api/v1/artists/" + legacyArtistId)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(legacyArtistId.toString()));
+        mockMvc.perform(get("/api/v1/albums/" + albumId)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.artistIds[0]").value(legacyArtistId.toString()));
+    }
+
+    @Test
+    @DisplayName("GET /albums/export - deve exportar o catálogo em NDJSON")
+    void exportarAlbums_DeveRetornarNdjson() throws Exception {
+        UUID artistId = criarArtistaERetornarId();
+        AlbumDTO dto = AlbumDTO.builder()
+                .title("Álbum Exportado " + System.currentTimeMillis())
+                .year(2023)
+                .artistIds(List.of(artistId))
+                .build();
+        mockMvc.perform(post("/api/v1/albums")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+
+        String body = mockMvc.perform(get("/api/v1/albums/export")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<JsonNode> albums = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            albums.add(objectMapper.readTree(line));
+        }
+        JsonNode exported = albums.stream()
+                .filter(album -> dto.getTitle().equals(album.get("title").asText()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2023, exported.get("year").asInt());
+        assertEquals(1, exported.get("artistNames").size());
+        assertTrue(exported.get("coverKeys").isArray());
+    }
+
+    @Test
+    @DisplayName("DELETE /albums - capa compartilhada fica no MinIO; a referência some só com o último álbum")
+    void excluirAlbum_ComCapaCompartilhada_NaoDeveRemoverObjeto() throws Exception {
+        UUID artistId = criarArtistaERetornarId();
+        MockMultipartFile capa = new MockMultipartFile("images", "capa.png", "image/png", "capa".getBytes());
+        when(minioService.uploadFile(any())).thenReturn("covers/sha256/compartilhada");
+
+        List<UUID> albumIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            String body = mockMvc.perform(multipart("/api/v1/albums")
+                            .file(capa)
+                            .file(new MockMultipartFile("title", "", "text/plain", ("Álbum Capa Compartilhada " + i).getBytes()))
+                            .file(new MockMultipartFile("year", "", "text/plain", "2020".getBytes()))
+                            .file(new MockMultipartFile("artistIds", "", "text/plain", artistId.toString().getBytes()))
+                            .header("Authorization", "Bearer " + accessToken))
+                    .andExpect(status().isCreated())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            albumIds.add(UUID.fromString(objectMapper.readTree(body).get("data").get("id").asText()));
+        }
+
+        mockMvc.perform(delete("/api/v1/albums/" + albumIds.get(0))
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+        assertEquals(List.of("covers/sha256/compartilhada"),
+                albumRepository.findReferencedImageKeys(List.of("covers/sha256/compartilhada")));
+
+        mockMvc.perform(delete("/api/v1/albums/" + albumIds.get(1))
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+        // Sem referências, o objeto sai na coleta de órfãos, nunca na exclusão do álbum
+        assertTrue(albumRepository.findReferencedImageKeys(List.of("covers/sha256/compartilhada")).isEmpty());
+        verify(minioService, never()).deleteFile(any());
+    }
+
     @Test
     @DisplayName("PUT /artists - deve atualizar artista")
     void atualizarArtista_DeveRetornar200() throws Exception {
@@ -151,6 +281,40 @@ class AlbumArtistIntegrationTest {
                 .andExpect(jsonPath("$.data.name").value("Artista Atualizado"));
     }
 
+    @Test
+    @DisplayName("Gravar o usuário invalida o cache de UserDetails")
+    void salvarUsuario_DeveInvalidarCacheDeUserDetails() {
+        String hashOriginal = userDetailsService.loadUserByUsername("admin").getPassword();
+        var admin = userRepository.findByUsername("admin").orElseThrow();
+        admin.setPassword("hash-alterado");
+        userRepository.save(admin);
+        try {
+            assertEquals("hash-alterado", userDetailsService.loadUserByUsername("admin").getPassword());
+        } finally {
+            admin = userRepository.findByUsername("admin").orElseThrow();
+            admin.setPassword(hashOriginal);
+            userRepository.save(admin);
+        }
+        assertEquals(hashOriginal, userDetailsService.loadUserByUsername("admin").getPassword());
+    }
+
+    @Test
+    @DisplayName("GET /regionais - responde com ETag e 304 na revalidação")
+    void listarRegionais_ComIfNoneMatch_DeveRetornar304() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/regionais")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/regionais")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     @DisplayName("GET /actuator/health/liveness - deve retornar UP")
     void healthLiveness_DeveRetornar200() throws Exception {
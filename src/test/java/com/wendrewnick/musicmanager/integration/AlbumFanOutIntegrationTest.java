@@ -0,0 +1,96 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+import com.wendrewnick.musicmanager.service.PostgresAlbumBroadcaster;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Réplicas com {@link PostgresAlbumBroadcaster} sobre o mesmo banco: um lote criado em qualquer uma chega ao broker
+ * local de todas, e o trabalho da réplica que publica (NOTIFY por lote) não cresce com o número de réplicas que
+ * atendem assinantes. Sem Docker o teste é ignorado.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class AlbumFanOutIntegrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    @Test
+    @DisplayName("Lote publicado numa réplica chega a todas, com o mesmo custo de publicação para 1 ou 4 réplicas")
+    void lote_DeveChegarATodasAsReplicas() throws Exception {
+        List<AlbumChangeEvent> events = IntStream.range(0, 200)
+                .mapToObj(i -> AlbumChangeEvent.builder().type(AlbumChangeEvent.Type.CREATED).id(UUID.randomUUID())
+                        .version(0L).changes(Map.of("title", "Álbum " + i, "year", 2024)).build())
+                .toList();
+
+        double sentWithOneReplica = publishAndCountNotifies(1, events);
+        double sentWithFourReplicas = publishAndCountNotifies(4, events);
+
+        assertTrue(sentWithOneReplica > 1, "lote de 200 eventos deveria ocupar mais de um NOTIFY");
+        assertEquals(sentWithOneReplica, sentWithFourReplicas);
+    }
+
+    private static double publishAndCountNotifies(int replicas, List<AlbumChangeEvent> events) throws Exception {
+        List<PostgresAlbumBroadcaster> nodes = new ArrayList<>();
+        List<SimpMessagingTemplate> brokers = new ArrayList<>();
+        SimpleMeterRegistry publisherRegistry = new SimpleMeterRegistry();
+        try {
+            for (int i = 0; i < replicas; i++) {
+                SimpMessagingTemplate broker = mock(SimpMessagingTemplate.class);
+                PostgresAlbumBroadcaster node = new PostgresAlbumBroadcaster(dataSource, POSTGRES.getJdbcUrl(),
+                        POSTGRES.getUsername(), POSTGRES.getPassword(), broker, new ObjectMapper(),
+                        i == 0 ? publisherRegistry : new SimpleMeterRegistry(), Duration.ofMillis(100));
+                node.start();
+                nodes.add(node);
+                brokers.add(broker);
+            }
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (!nodes.stream().allMatch(PostgresAlbumBroadcaster::isListening)) {
+                assertTrue(System.nanoTime() < deadline, "réplicas não começaram a escutar");
+                Thread.sleep(10);
+            }
+
+            nodes.get(0).broadcast(events);
+
+            double sent = publisherRegistry.counter("websocket.broker.notifications", "direction", "sent").count();
+            for (SimpMessagingTemplate broker : brokers) {
+                verify(broker, timeout(5000).times((int) sent)).send(anyString(), any());
+            }
+            return sent;
+        } finally {
+            nodes.forEach(PostgresAlbumBroadcaster::close);
+        }
+    }
+}
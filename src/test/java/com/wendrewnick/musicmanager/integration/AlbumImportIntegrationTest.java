@@ -0,0 +1,201 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.dto.AlbumImportResultDTO;
+import com.wendrewnick.musicmanager.dto.AuthRequest;
+import com.wendrewnick.musicmanager.dto.AuthResponse;
+import com.wendrewnick.musicmanager.entity.Artist;
+import com.wendrewnick.musicmanager.repository.AlbumRepository;
+import com.wendrewnick.musicmanager.repository.ArtistRepository;
+import com.wendrewnick.musicmanager.service.AlbumImportService;
+import com.wendrewnick.musicmanager.service.MinioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AlbumImportIntegrationTest {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String COVER_KEY = "covers/sha256/" + "ab".repeat(32);
+
+    // Álbuns por segundo exigidos do benchmark (H2 em memória)
+    private static final double MIN_ALBUMS_PER_SECOND = 2_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AlbumImportService albumImportService;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private MinioService minioService;
+
+    private String marker;
+    private Artist solo;
+    private Artist band;
+
+    @BeforeEach
+    void setUp() {
+        marker = "Import" + UUID.randomUUID().toString().substring(0, 8);
+        solo = artistRepository.save(Artist.builder().name(marker + " Solo").band(false).build());
+        band = artistRepository.save(Artist.builder().name(marker + " Band").band(true).build());
+    }
+
+    @Test
+    @DisplayName("POST /albums/import - NDJSON com artistas por id e por nome, erros reportados por lote")
+    void importarNdjson_DeveGravarValidosEReportarFalhas() throws Exception {
+        String ndjson = String.join("\n",
+                "{\"title\":\"" + marker + " A\",\"year\":2001,\"artistIds\":[\"" + solo.getId() + "\"]}",
+                "{\"title\":\"" + marker + " B\",\"year\":2002,\"artistNames\":[\"" + band.getName().toUpperCase() + "\"],"
+                        + "\"coverKeys\":[\"" + COVER_KEY + "\"]}",
+                "{\"title\":\"" + marker + " C\",\"year\":2003,\"artistNames\":[\"Ninguém " + marker + "\"]}",
+                "{\"title\":\"" + marker + " D\",\"year\":1800,\"artistIds\":[\"" + solo.getId() + "\"]}",
+                "{\"title\":\"" + marker + " E\",\"year\":2005,\"artistIds\":[\"" + solo.getId() + "\"],\"artistNames\":[\"" + band.getName() + "\"]}",
+                "{\"title\":\"" + marker + " F\",\"artistIds\":[\"" + solo.getId() + "\"],\"coverKeys\":[\"albums/x/../capa.jpg\"]}");
+
+        String body = mockMvc.perform(post("/api/v1/albums/import")
+                        .header("Authorization", "Bearer " + obtainAccessToken())
+                        .param("chunkSize", "2")
+                        .contentType(NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.received").value(6))
+                .andExpect(jsonPath("$.data.imported").value(3))
+                .andExpect(jsonPath("$.data.failed").value(3))
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        JsonNode chunks = objectMapper.readTree(body).get("data").get("chunks");
+        assertEquals(3, chunks.size());
+        assertEquals(2, chunks.get(0).get("imported").asInt());
+        assertEquals(0, chunks.get(1).get("imported").asInt());
+        assertEquals(2, chunks.get(1).get("failures").get(0).get("position").asInt());
+        assertEquals(3, chunks.get(1).get("failures").get(1).get("position").asInt());
+        assertEquals(1, chunks.get(2).get("imported").asInt());
+        // Mesmas regras do AlbumDTO (ano obrigatório) e só chaves de capa endereçadas por conteúdo
+        JsonNode missingYear = chunks.get(2).get("failures").get(0);
+        assertEquals(5, missingYear.get("position").asInt());
+        assertTrue(missingYear.get("message").asText().contains("O ano é obrigatório"));
+        assertTrue(missingYear.get("message").asText().contains("Chave de capa inválida"));
+
+        assertEquals(3, albumRepository.findAll().stream().filter(a -> a.getTitle().startsWith(marker)).count());
+    }
+
+    @Test
+    @DisplayName("POST /albums/import - aceita array JSON e rejeita chunkSize fora do limite")
+    void importarArray_DeveAceitarEValidarChunkSize() throws Exception {
+        String array = "[{\"title\":\"" + marker + " Array\",\"year\":2010,\"artistIds\":[\"" + solo.getId() + "\"]}]";
+        String token = obtainAccessToken();
+
+        mockMvc.perform(post("/api/v1/albums/import")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(array))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.imported").value(1));
+
+        mockMvc.perform(post("/api/v1/albums/import")
+                        .header("Authorization", "Bearer " + token)
+                        .param("chunkSize", "0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(array))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Importação - INSERTs em batch JDBC e uma consulta de artistas por lote")
+    void importar_DeveUsarBatchJdbc() {
+        int total = 200;
+        int chunkSize = 100;
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AlbumImportResultDTO result = albumImportService.importAlbums(ndjson(total), chunkSize);
+
+        assertEquals(total, result.getImported());
+        assertEquals(total / chunkSize, result.getChunks().size());
+        // 3 linhas por álbum (albums, album_artists, album_images); sem batch seriam 600 statements
+        assertEquals(total / chunkSize, statistics.getQueryExecutionCount());
+        assertTrue(statistics.getPrepareStatementCount() < 60,
+                "statements preparados: " + statistics.getPrepareStatementCount());
+        assertEquals(total, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark - 20 mil álbuns acima da vazão mínima")
+    void importar_Benchmark() {
+        int total = 20_000;
+        albumImportService.importAlbums(ndjson(1_000), 500);
+
+        long start = System.nanoTime();
+        AlbumImportResultDTO result = albumImportService.importAlbums(ndjson(total), 500);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(total, result.getImported());
+        double rate = total / seconds;
+        System.out.printf("Importação: %d álbuns em %.2fs (%.0f álbuns/s)%n", total, seconds, rate);
+        assertTrue(rate >= MIN_ALBUMS_PER_SECOND, "vazão abaixo do alvo: " + rate);
+        assertTrue(albumRepository.findAll(PageRequest.of(0, 1)).getTotalElements() >= total);
+    }
+
+    private ByteArrayInputStream ndjson(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append("{\"title\":\"").append(marker).append(" Lote ").append(i).append("\",\"year\":2000,")
+                    .append("\"artistIds\":[\"").append(solo.getId()).append("\"],")
+                    .append("\"artistNames\":[\"").append(band.getName()).append("\"],")
+                    .append("\"coverKeys\":[\"covers/sha256/").append(String.format("%064x", i)).append("\"]}\n");
+        }
+        return new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String obtainAccessToken() throws Exception {
+        String body = mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("admin", "admin"))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(body, AuthResponse.class).getAccessToken();
+    }
+}
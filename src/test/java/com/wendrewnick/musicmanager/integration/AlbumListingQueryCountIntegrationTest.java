@@ -0,0 +1,136 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.wendrewnick.musicmanager.dto.AlbumDTO;
+import com.wendrewnick.musicmanager.entity.Album;
+import com.wendrewnick.musicmanager.entity.Artist;
+import com.wendrewnick.musicmanager.repository.AlbumRepository;
+import com.wendrewnick.musicmanager.repository.ArtistRepository;
+import com.wendrewnick.musicmanager.repository.CoverThumbnailRepository;
+import com.wendrewnick.musicmanager.service.AlbumService;
+import com.wendrewnick.musicmanager.service.MinioService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AlbumListingQueryCountIntegrationTest {
+
+    private static final int PAGE_SIZE = 5;
+
+    // IDs da página + count + carga de álbuns com artistas e imagens + capas com miniaturas
+    private static final long MAX_STATEMENTS_PER_PAGE = 4;
+
+    @Autowired
+    private AlbumService albumService;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private CoverThumbnailRepository coverThumbnailRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private MinioService minioService;
+
+    private Statistics statistics;
+    private String marker;
+
+    @BeforeEach
+    void setUp() {
+        when(minioService.getPresignedUrl(any())).thenReturn("https://example.com/presigned-url");
+        when(minioService.getThumbnailUrl(any(), anyInt())).thenReturn("https://example.com/thumbnail-url");
+
+        marker = "N1Probe" + UUID.randomUUID().toString().substring(0, 8);
+        Artist solo = artistRepository.save(Artist.builder().name(marker + " Solo").band(false).build());
+        Artist band = artistRepository.save(Artist.builder().name(marker + " Band").band(true).build());
+        for (int i = 0; i < PAGE_SIZE * 2; i++) {
+            albumRepository.save(Album.builder()
+                    .title(marker + " Album " + i)
+                    .year(2000 + i)
+                    .artists(Set.of(solo, band))
+                    .images(Set.of(marker + "-cover-" + i + "-a", marker + "-cover-" + i + "-b"))
+                    .build());
+            // Só a primeira capa de cada álbum tem miniaturas geradas; a segunda ainda está na fila
+            coverThumbnailRepository.markGenerated(marker + "-cover-" + i + "-a");
+            coverThumbnailRepository.markGenerated(marker + "-cover-" + i + "-a");
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Listagem sem filtro - número fixo de statements por página")
+    void findAll_SemFiltro_NaoDeveGerarNMais1() {
+        Page<AlbumDTO> page = albumService.findAll(null, null, null, PageRequest.of(0, PAGE_SIZE, Sort.by("title")));
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Statements executados: " + statistics.getPrepareStatementCount());
+        page.forEach(dto -> assertFalse(dto.getArtistNames().isEmpty()));
+    }
+
+    @Test
+    @DisplayName("Filtro por título - número fixo de statements e paginação correta")
+    void findAll_PorTitulo_DevePaginarComCountCorreto() {
+        Page<AlbumDTO> page = albumService.findAll(marker, null, null, PageRequest.of(1, PAGE_SIZE, Sort.by("title")));
+
+        assertEquals(PAGE_SIZE * 2, page.getTotalElements());
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertEquals(marker + " Album 5", page.getContent().get(0).getTitle());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Statements executados: " + statistics.getPrepareStatementCount());
+        page.forEach(dto -> {
+            assertEquals(2, dto.getArtistNames().size());
+            assertEquals(2, dto.getCoverUrls().size());
+            assertEquals(Set.of(512, 128), dto.getThumbnailUrls().keySet());
+            dto.getThumbnailUrls().values().forEach(urls -> assertEquals(1, urls.size()));
+        });
+    }
+
+    @Test
+    @DisplayName("Filtro por artista - count não duplica álbuns com vários artistas")
+    void findAll_PorArtista_DeveContarAlbunsDistintos() {
+        Page<AlbumDTO> page = albumService.findAll(null, marker, null, PageRequest.of(0, PAGE_SIZE, Sort.by("title")));
+
+        assertEquals(PAGE_SIZE * 2, page.getTotalElements());
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Statements executados: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Filtro solo/banda - número fixo de statements por página")
+    void findAll_PorTipoArtista_NaoDeveGerarNMais1() {
+        Page<AlbumDTO> page = albumService.findAll(null, null, true, PageRequest.of(0, PAGE_SIZE, Sort.by("title")));
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= MAX_STATEMENTS_PER_PAGE,
+                "Statements executados: " + statistics.getPrepareStatementCount());
+    }
+}
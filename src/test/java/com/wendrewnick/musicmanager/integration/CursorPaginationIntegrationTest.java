@@ -0,0 +1,150 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.wendrewnick.musicmanager.dto.AlbumDTO;
+import com.wendrewnick.musicmanager.dto.ArtistDTO;
+import com.wendrewnick.musicmanager.dto.CursorPageDTO;
+import com.wendrewnick.musicmanager.entity.Album;
+import com.wendrewnick.musicmanager.entity.Artist;
+import com.wendrewnick.musicmanager.exception.BusinessException;
+import com.wendrewnick.musicmanager.repository.AlbumRepository;
+import com.wendrewnick.musicmanager.repository.ArtistRepository;
+import com.wendrewnick.musicmanager.service.AlbumService;
+import com.wendrewnick.musicmanager.service.ArtistService;
+import com.wendrewnick.musicmanager.service.MinioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CursorPaginationIntegrationTest {
+
+    private static final int ALBUMS = 7;
+    private static final int PAGE_SIZE = 3;
+
+    @Autowired
+    private AlbumService albumService;
+
+    @Autowired
+    private ArtistService artistService;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @MockBean
+    private MinioService minioService;
+
+    private String marker;
+
+    @BeforeEach
+    void setUp() {
+        marker = "Keyset" + UUID.randomUUID().toString().substring(0, 8);
+        Artist artist = artistRepository.save(Artist.builder().name(marker + " Artist").band(true).build());
+        for (int i = 0; i < ALBUMS; i++) {
+            // Anos repetidos e nulos forçam o desempate pelo ID
+            albumRepository.save(Album.builder()
+                    .title(marker + " Album " + i)
+                    .year(i % 3 == 0 ? null : 2000 + i % 2)
+                    .artists(Set.of(artist))
+                    .build());
+            artistRepository.save(Artist.builder().name(marker + " Solo " + i).band(false).build());
+        }
+    }
+
+    @Test
+    @DisplayName("Cursor por título - percorre todas as páginas na ordem, sem repetir")
+    void albunsPorTitulo_DevePercorrerTodasAsPaginas() {
+        List<String> titles = walkAlbums(Sort.by("title")).stream().map(AlbumDTO::getTitle).toList();
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < ALBUMS; i++) {
+            expected.add(marker + " Album " + i);
+        }
+        assertEquals(expected, titles);
+        assertEquals(expected.reversed(),
+                walkAlbums(Sort.by(Sort.Direction.DESC, "title")).stream().map(AlbumDTO::getTitle).toList());
+    }
+
+    @Test
+    @DisplayName("Cursor por ano com empates e nulos - nenhum álbum repetido ou omitido")
+    void albunsPorAno_ComEmpates_NaoDeveRepetirNemOmitir() {
+        for (Sort sort : List.of(Sort.by("year"), Sort.by(Sort.Direction.DESC, "year"), Sort.by("createdAt"))) {
+            List<AlbumDTO> albums = walkAlbums(sort);
+            Set<UUID> ids = new HashSet<>();
+            albums.forEach(album -> ids.add(album.getId()));
+            assertEquals(ALBUMS, albums.size(), sort.toString());
+            assertEquals(ALBUMS, ids.size(), sort.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Cursor de artistas por nome - filtro e ordenação mantidos entre páginas")
+    void artistasPorNome_DevePercorrerTodasAsPaginas() {
+        List<String> names = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPageDTO<ArtistDTO> page = artistService.findAllByCursor(marker + " Solo", after, PAGE_SIZE, Sort.by("name"));
+            page.getContent().forEach(artist -> names.add(artist.getName()));
+            after = page.getNextCursor();
+        } while (after != null);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < ALBUMS; i++) {
+            expected.add(marker + " Solo " + i);
+        }
+        assertEquals(expected, names);
+    }
+
+    @Test
+    @DisplayName("Última página - hasNext falso e sem nextCursor")
+    void ultimaPagina_DeveRetornarSemCursor() {
+        CursorPageDTO<AlbumDTO> page = albumService.findAllByCursor(marker, null, null, null, ALBUMS, Sort.by("title"));
+
+        assertEquals(ALBUMS, page.getSize());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Cursor inválido ou ordenação não suportada - BusinessException")
+    void cursorInvalido_DeveLancarBusinessException() {
+        assertThrows(BusinessException.class,
+                () -> albumService.findAllByCursor(null, null, null, "nao-e-um-cursor", PAGE_SIZE, Sort.by("title")));
+        assertThrows(BusinessException.class,
+                () -> albumService.findAllByCursor(null, null, null, null, PAGE_SIZE, Sort.by("id")));
+        assertThrows(BusinessException.class,
+                () -> artistService.findAllByCursor(null, null, 0, Sort.by("name")));
+
+        String albumCursor = albumService.findAllByCursor(marker, null, null, null, 1, Sort.by("title")).getNextCursor();
+        assertThrows(BusinessException.class,
+                () -> artistService.findAllByCursor(null, albumCursor, PAGE_SIZE, Sort.by("name")));
+    }
+
+    private List<AlbumDTO> walkAlbums(Sort sort) {
+        List<AlbumDTO> albums = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPageDTO<AlbumDTO> page = albumService.findAllByCursor(marker, null, null, after, PAGE_SIZE, sort);
+            assertTrue(page.getSize() <= PAGE_SIZE);
+            albums.addAll(page.getContent());
+            after = page.getNextCursor();
+        } while (after != null);
+        return albums;
+    }
+}
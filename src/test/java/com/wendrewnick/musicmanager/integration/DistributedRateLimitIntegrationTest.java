@@ -0,0 +1,115 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.wendrewnick.musicmanager.security.PostgresBucketStore;
+import com.wendrewnick.musicmanager.security.RateLimitBucketPurger;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Duas instâncias de {@link PostgresBucketStore} sobre o mesmo banco simulam duas réplicas da API:
+ * o limite por chave é global, não multiplicado pelo número de réplicas. Sem Docker o teste é ignorado.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class DistributedRateLimitIntegrationTest {
+
+    private static final int REQUESTS_PER_MINUTE = 10;
+    private static final BucketConfiguration CONFIGURATION = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder()
+                    .capacity(REQUESTS_PER_MINUTE)
+                    .refillGreedy(REQUESTS_PER_MINUTE, Duration.ofMinutes(1))
+                    .build())
+            .build();
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                // Lock de sessão: com o lock transacional o CREATE INDEX CONCURRENTLY espera para sempre
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+    }
+
+    @Test
+    @DisplayName("Réplicas compartilham o mesmo bucket por usuário")
+    void replicas_DevemCompartilharOLimite() {
+        try (PostgresBucketStore replicaA = newStore(); PostgresBucketStore replicaB = newStore()) {
+            int consumed = 0;
+            for (int i = 0; i < 2 * REQUESTS_PER_MINUTE; i++) {
+                PostgresBucketStore replica = i % 2 == 0 ? replicaA : replicaB;
+                if (replica.tryConsume("user:compartilhado", CONFIGURATION).isConsumed()) {
+                    consumed++;
+                }
+            }
+            assertEquals(REQUESTS_PER_MINUTE, consumed);
+        }
+    }
+
+    @Test
+    @DisplayName("Buckets ociosos são removidos da tabela e recriados no próximo acesso")
+    void bucketsOciosos_DevemSerRemovidos() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        RateLimitBucketPurger purger = new RateLimitBucketPurger(jdbcTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(purger, "idleMinutes", 10L);
+        ReflectionTestUtils.setField(purger, "batchSize", 2);
+
+        try (PostgresBucketStore replica = newStore()) {
+            for (int i = 0; i < 5; i++) {
+                replica.tryConsume("ip:ocioso-" + i, CONFIGURATION);
+            }
+            replica.tryConsume("user:ativo", CONFIGURATION);
+            // Simula 1 h sem acesso; o próximo consumo de user:ativo renova a linha pelo trigger
+            jdbcTemplate.update("UPDATE rate_limit_buckets SET updated_at = now() - INTERVAL '1 hour'");
+            assertEquals(0, countRecent(jdbcTemplate, "user:ativo"));
+            replica.tryConsume("user:ativo", CONFIGURATION);
+            assertEquals(1, countRecent(jdbcTemplate, "user:ativo"));
+
+            // Em lotes de 2 até esvaziar: as 5 chaves ociosas saem, a ativa fica
+            assertEquals(5, purger.purgeIdleBuckets());
+            assertEquals(List.of("user:ativo"), jdbcTemplate.queryForList(
+                    "SELECT id FROM rate_limit_buckets WHERE id IN ('user:ativo', 'ip:ocioso-0', 'ip:ocioso-1', "
+                            + "'ip:ocioso-2', 'ip:ocioso-3', 'ip:ocioso-4')", String.class));
+
+            // O proxy em memória recria a linha apagada, com o bucket cheio
+            assertTrue(replica.tryConsume("ip:ocioso-0", CONFIGURATION).isConsumed());
+            assertEquals(1, countRecent(jdbcTemplate, "ip:ocioso-0"));
+        }
+    }
+
+    private static int countRecent(JdbcTemplate jdbcTemplate, String id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM rate_limit_buckets WHERE id = ? AND updated_at > now() - INTERVAL '1 minute'",
+                Integer.class, id);
+    }
+
+    private static PostgresBucketStore newStore() {
+        // Sincroniza a cada requisição: a contagem exata não depende dos tokens ainda não sincronizados
+        return new PostgresBucketStore(dataSource, new SimpleMeterRegistry(), 1000, Duration.ofMinutes(10), 0, Duration.ZERO, Duration.ofMinutes(1));
+    }
+}
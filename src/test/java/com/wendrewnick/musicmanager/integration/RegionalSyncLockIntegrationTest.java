@@ -0,0 +1,94 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.dto.RegionalExternalDTO;
+import com.wendrewnick.musicmanager.service.RegionalService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Duas instâncias de {@link RegionalService} sobre o mesmo banco simulam duas réplicas sincronizando ao mesmo
+ * tempo: o advisory lock garante uma única linha ativa por regional. Sem Docker o teste é ignorado.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RegionalSyncLockIntegrationTest {
+
+    private static final int ROUNDS = 20;
+    private static final int REGIONAIS = 50;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void migrate() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                // Lock de sessão: com o lock transacional o CREATE INDEX CONCURRENTLY espera para sempre
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+    }
+
+    @Test
+    @DisplayName("Réplicas aplicando a mesma lista ao mesmo tempo não duplicam regionais ativas")
+    void replicas_NaoDevemDuplicarRegionaisAtivas() throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (int round = 0; round < ROUNDS; round++) {
+            SortedMap<Integer, RegionalExternalDTO> remote = new TreeMap<>();
+            for (int id = 1; id <= REGIONAIS; id++) {
+                remote.put(id, new RegionalExternalDTO(id, "Regional " + id + " v" + round));
+            }
+            // Réplicas novas a cada rodada: nenhuma tem o hash da lista anterior em memória
+            RegionalService replicaA = newReplica();
+            RegionalService replicaB = newReplica();
+            CyclicBarrier start = new CyclicBarrier(2);
+            CompletableFuture<Void> a = CompletableFuture.runAsync(() -> apply(replicaA, remote, start));
+            CompletableFuture<Void> b = CompletableFuture.runAsync(() -> apply(replicaB, remote, start));
+            CompletableFuture.allOf(a, b).get();
+
+            List<Integer> activePerRegional = jdbcTemplate.queryForList(
+                    "SELECT COUNT(*) FROM regionais WHERE ativo = true GROUP BY regional_id", Integer.class);
+            assertEquals(REGIONAIS, activePerRegional.size());
+            activePerRegional.forEach(count -> assertEquals(1, count));
+        }
+    }
+
+    private static void apply(RegionalService replica, SortedMap<Integer, RegionalExternalDTO> remote, CyclicBarrier start) {
+        try {
+            start.await();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        ReflectionTestUtils.invokeMethod(replica, "applyRemote", remote);
+    }
+
+    private static RegionalService newReplica() {
+        return new RegionalService(new ObjectMapper(), new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,57 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.wendrewnick.musicmanager.repository.StorageGcStateRepository;
+import com.wendrewnick.musicmanager.service.MinioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StorageGcLeaseIntegrationTest {
+
+    private static final String NAME = "covers";
+
+    @Autowired
+    private StorageGcStateRepository stateRepository;
+
+    @MockBean
+    private MinioService minioService;
+
+    @AfterEach
+    void releaseLease() {
+        stateRepository.tryLock(NAME, "limpeza", Instant.now().plus(Duration.ofDays(1)), Instant.EPOCH);
+        stateRepository.savePosition(NAME, "limpeza", null, Instant.EPOCH);
+    }
+
+    @Test
+    @DisplayName("Lease da coleta de órfãos - uma réplica por vez, posição compartilhada no banco")
+    void lease_DeveSerExclusivoAteExpirar() {
+        // Precisão do TIMESTAMP no banco
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        assertEquals(1, stateRepository.tryLock(NAME, "replica-a", now, now.plusSeconds(60)));
+        assertEquals(0, stateRepository.tryLock(NAME, "replica-b", now, now.plusSeconds(60)));
+        assertEquals(1, stateRepository.savePosition(NAME, "replica-a", "covers/sha256/abc", now.plusSeconds(60)));
+        assertEquals(0, stateRepository.savePosition(NAME, "replica-b", "zzz", now.plusSeconds(60)));
+
+        // Lease expirado (réplica caiu): outra assume e continua da posição salva
+        Instant later = now.plusSeconds(61);
+        assertEquals(1, stateRepository.tryLock(NAME, "replica-b", later, later.plusSeconds(60)));
+        assertEquals(0, stateRepository.savePosition(NAME, "replica-a", "x", later.plusSeconds(60)));
+        assertEquals("covers/sha256/abc", stateRepository.findById(NAME).orElseThrow().getResumeAfter());
+
+        assertEquals(1, stateRepository.unlock(NAME, "replica-b", later));
+        assertEquals(1, stateRepository.tryLock(NAME, "replica-a", later, later.plusSeconds(60)));
+    }
+}
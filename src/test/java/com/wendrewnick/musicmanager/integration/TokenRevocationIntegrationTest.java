@@ -0,0 +1,151 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.dto.AuthRequest;
+import com.wendrewnick.musicmanager.dto.AuthResponse;
+import com.wendrewnick.musicmanager.repository.UserRepository;
+import com.wendrewnick.musicmanager.security.TokenVersionCache;
+import com.wendrewnick.musicmanager.service.MinioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Revogação por {@code users.token_version} no modo stateless: quem atende o logout recusa os tokens
+ * antigos na hora; uma alteração feita por outra réplica vale a partir da próxima recarga do cache.
+ */
+@SpringBootTest(properties = "jwt.stateless=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TokenRevocationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private CommandLineRunner adminSeeder;
+
+    @MockBean
+    private MinioService minioService;
+
+    @AfterEach
+    void restoreAdmin() throws Exception {
+        // Outras classes de teste compartilham o banco em memória e fazem login como admin/admin
+        adminSeeder.run();
+        tokenVersionCache.refresh();
+    }
+
+    @Test
+    @DisplayName("POST /auth/logout - tokens emitidos antes deixam de valer na hora")
+    void logout_ShouldRejectOldAccessAndRefreshTokens() throws Exception {
+        AuthResponse tokens = login();
+        expectArtists(tokens.getAccessToken(), 200);
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .header("Authorization", "Bearer " + tokens.getAccessToken()))
+                .andExpect(status().isNoContent());
+
+        expectArtists(tokens.getAccessToken(), 401);
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                        .header("Authorization", "Bearer " + tokens.getRefreshToken()))
+                .andExpect(status().isUnauthorized());
+        expectArtists(login().getAccessToken(), 200);
+    }
+
+    @Test
+    @DisplayName("POST /auth/logout - exige token")
+    void logout_ShouldReturn401_WithoutToken() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/logout"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("Versão incrementada por outra réplica - token antigo recusado após a recarga")
+    void bumpElsewhere_ShouldRejectOldToken_AfterCacheReload() throws Exception {
+        String accessToken = login().getAccessToken();
+
+        var admin = userRepository.findByUsername("admin").orElseThrow();
+        admin.setTokenVersion(admin.getTokenVersion() + 1);
+        userRepository.save(admin);
+
+        // Dentro da janela de recarga o cache desta instância ainda não viu a alteração
+        expectArtists(accessToken, 200);
+
+        tokenVersionCache.refresh();
+
+        expectArtists(accessToken, 401);
+        expectArtists(login().getAccessToken(), 200);
+    }
+
+    @Test
+    @DisplayName("Reset da senha do admin - incrementa a versão e revoga tokens da senha anterior")
+    void adminPasswordReset_ShouldBumpTokenVersion() throws Exception {
+        String accessToken = login().getAccessToken();
+        var admin = userRepository.findByUsername("admin").orElseThrow();
+        admin.setPassword(passwordEncoder.encode("outra-senha"));
+        userRepository.save(admin);
+        int before = admin.getTokenVersion();
+
+        adminSeeder.run();
+        tokenVersionCache.refresh();
+
+        assertEquals(before + 1, userRepository.findByUsername("admin").orElseThrow().getTokenVersion());
+        expectArtists(accessToken, 401);
+    }
+
+    @Test
+    @DisplayName("Reinício sem troca de senha - tokens seguem válidos")
+    void adminSeeder_ShouldKeepTokenVersion_WhenPasswordUnchanged() throws Exception {
+        String accessToken = login().getAccessToken();
+        int before = userRepository.findByUsername("admin").orElseThrow().getTokenVersion();
+
+        adminSeeder.run();
+        tokenVersionCache.refresh();
+
+        assertEquals(before, userRepository.findByUsername("admin").orElseThrow().getTokenVersion());
+        expectArtists(accessToken, 200);
+    }
+
+    private AuthResponse login() throws Exception {
+        String body = mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("admin", "admin"))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(body, AuthResponse.class);
+    }
+
+    private void expectArtists(String accessToken, int expectedStatus) throws Exception {
+        mockMvc.perform(get("/api/v1/artists")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().is(expectedStatus));
+    }
+}
@@ -0,0 +1,113 @@
+package com.wendrewnick.musicmanager.integration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica com EXPLAIN que as buscas por substring usam os índices trigram da migration V6.
+ * <p>
+ * Roda contra um PostgreSQL real (Testcontainers) com 100 mil álbuns e 100 mil artistas,
+ * volume suficiente para o planner preferir o índice ao seq scan. Sem Docker o teste é ignorado.
+ * As consultas reproduzem o SQL gerado pelo Hibernate para AlbumRepository e ArtistRepository.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TrigramSearchIndexExplainTest {
+
+    private static final int SEED_ROWS = 100_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static String searchTerm;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                // Lock de sessão: com o lock transacional o CREATE INDEX CONCURRENTLY espera para sempre
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO artists (id, name) SELECT gen_random_uuid(), 'Artist ' || md5(g::text) FROM generate_series(1, ?) g",
+                SEED_ROWS);
+        jdbcTemplate.update("INSERT INTO albums (id, title) SELECT gen_random_uuid(), 'Album ' || md5(g::text) FROM generate_series(1, ?) g",
+                SEED_ROWS);
+        jdbcTemplate.execute("""
+                INSERT INTO album_artists (album_id, artist_id)
+                SELECT al.id, ar.id
+                FROM (SELECT id, row_number() OVER () AS rn FROM albums) al
+                JOIN (SELECT id, row_number() OVER () AS rn FROM artists) ar ON ar.rn = al.rn
+                ON CONFLICT DO NOTHING""");
+        jdbcTemplate.execute("ANALYZE");
+
+        // Trecho do md5 de uma linha semeada: seletivo, como uma busca real por nome
+        searchTerm = jdbcTemplate.queryForObject("SELECT upper(substr(md5('4242'), 3, 10))", String.class);
+    }
+
+    @Test
+    @DisplayName("Busca de álbum por título usa idx_albums_title_trgm")
+    void buscaPorTitulo_DeveUsarIndiceTrigram() {
+        String plan = explain("""
+                SELECT a.id FROM albums a
+                WHERE lower(a.title) LIKE lower(('%%' || '%s' || '%%'))
+                ORDER BY a.title
+                OFFSET 0 ROWS FETCH FIRST 20 ROWS ONLY""".formatted(searchTerm));
+
+        assertTrue(plan.contains("idx_albums_title_trgm"), plan);
+    }
+
+    @Test
+    @DisplayName("Busca de álbum por nome do artista usa idx_artists_name_trgm")
+    void buscaPorNomeDoArtista_DeveUsarIndiceTrigram() {
+        String plan = explain("""
+                SELECT a.id FROM albums a
+                WHERE EXISTS (SELECT 1 FROM album_artists aa JOIN artists art ON art.id = aa.artist_id
+                              WHERE aa.album_id = a.id AND lower(art.name) LIKE lower(('%%' || '%s' || '%%')))""".formatted(searchTerm));
+
+        assertTrue(plan.contains("idx_artists_name_trgm"), plan);
+        assertTrue(plan.contains("idx_album_artists_artist_id"), plan);
+    }
+
+    @Test
+    @DisplayName("Listagem de artistas filtrada por nome usa idx_artists_name_trgm")
+    void buscaDeArtistaPorNome_DeveUsarIndiceTrigram() {
+        String plan = explain("""
+                SELECT a.id FROM artists a
+                WHERE lower(a.name) LIKE lower(('%%' || '%s' || '%%'))
+                ORDER BY a.name""".formatted(searchTerm));
+
+        assertTrue(plan.contains("idx_artists_name_trgm"), plan);
+    }
+
+    @Test
+    @DisplayName("Verificação de nome duplicado usa idx_artists_name_trgm")
+    void verificacaoDeNomeDuplicado_DeveUsarIndiceTrigram() {
+        String plan = explain("SELECT count(a.id) > 0 FROM artists a WHERE lower(a.name) = lower('Artist %s')"
+                .formatted(searchTerm));
+
+        assertTrue(plan.contains("idx_artists_name_trgm"), plan);
+    }
+
+    private static String explain(String sql) {
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        return String.join("\n", lines);
+    }
+}
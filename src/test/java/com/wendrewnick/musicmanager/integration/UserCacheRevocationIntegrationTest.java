@@ -0,0 +1,116 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.dto.AuthRequest;
+import com.wendrewnick.musicmanager.dto.AuthResponse;
+import com.wendrewnick.musicmanager.security.TokenVersionCache;
+import com.wendrewnick.musicmanager.security.UserDetailsServiceImpl;
+import com.wendrewnick.musicmanager.service.MinioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Revogação no modo padrão com cache de usuários: uma alteração feita por outra réplica não passa pelo
+ * listener JPA desta instância, e vale a partir da próxima recarga do {@link TokenVersionCache}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserCacheRevocationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private CommandLineRunner adminSeeder;
+
+    @MockBean
+    private MinioService minioService;
+
+    @AfterEach
+    void restoreAdmin() throws Exception {
+        // Outras classes de teste compartilham o banco em memória e fazem login como admin/admin
+        adminSeeder.run();
+        userDetailsService.evict("admin");
+        tokenVersionCache.refresh();
+    }
+
+    @Test
+    @DisplayName("Logout em outra réplica - token antigo recusado após a recarga, mesmo com o usuário em cache")
+    void logoutElsewhere_ShouldRejectOldToken_AfterCacheReload() throws Exception {
+        String accessToken = login("admin").getAccessToken();
+        expectArtists(accessToken, 200);
+
+        // UPDATE direto simula a outra réplica: o cache de usuários desta instância não é invalidado
+        jdbcTemplate.update("UPDATE users SET token_version = token_version + 1 WHERE username = 'admin'");
+        expectArtists(accessToken, 200);
+
+        tokenVersionCache.refresh();
+
+        expectArtists(accessToken, 401);
+        expectArtists(login("admin").getAccessToken(), 200);
+    }
+
+    @Test
+    @DisplayName("Troca de senha em outra réplica - senha anterior recusada após a recarga")
+    void passwordChangeElsewhere_ShouldRejectOldPassword_AfterCacheReload() throws Exception {
+        login("admin");
+
+        jdbcTemplate.update("UPDATE users SET password = ?, token_version = token_version + 1 WHERE username = 'admin'",
+                passwordEncoder.encode("outra-senha"));
+        tokenVersionCache.refresh();
+
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("admin", "admin"))))
+                .andExpect(status().isUnauthorized());
+        expectArtists(login("outra-senha").getAccessToken(), 200);
+    }
+
+    private AuthResponse login(String password) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequest("admin", password))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(body, AuthResponse.class);
+    }
+
+    private void expectArtists(String accessToken, int expectedStatus) throws Exception {
+        mockMvc.perform(get("/api/v1/artists")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().is(expectedStatus));
+    }
+}
@@ -0,0 +1,127 @@
+package com.wendrewnick.musicmanager.integration;
+
+import com.wendrewnick.musicmanager.entity.UuidV7Generator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara chaves UUIDv4 e UUIDv7 num PostgreSQL real (Testcontainers): taxa de INSERT e tamanho dos índices
+ * de chave primária de uma tabela como albums e de uma tabela de ligação como album_artists.
+ * <p>
+ * Só roda com {@code -Dbenchmark=true} e Docker. O volume padrão é 10 milhões de linhas
+ * ({@code -Dbenchmark.rows} para outro valor); os ids são gerados na JVM, como na aplicação.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class UuidV7InsertBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000_000);
+    private static final int BATCH_SIZE = 1_000;
+    private static final int COMMIT_EVERY = 50_000;
+    private static final int ARTISTS = 10_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private record Result(String label, double rowsPerSecond, double lastTenthRowsPerSecond, long pkeyBytes,
+                          long linkBytes) {
+    }
+
+    @Test
+    @DisplayName("UUIDv7 - índices menores e INSERT mais rápido que UUIDv4")
+    void uuidV7_DeveGerarIndicesMenoresQueV4() throws SQLException {
+        Result v4 = load("v4", UUID::randomUUID);
+        Result v7 = load("v7", UuidV7Generator::next);
+
+        for (Result r : new Result[]{v4, v7}) {
+            System.out.printf("%s: %d linhas, %.0f linhas/s (último décimo %.0f linhas/s), pkey %d MB, album_artists %d MB%n",
+                    r.label(), ROWS, r.rowsPerSecond(), r.lastTenthRowsPerSecond(), r.pkeyBytes() >> 20, r.linkBytes() >> 20);
+        }
+        // Splits no meio do B-tree deixam as folhas do v4 com ~70% de ocupação; o v7 só acrescenta à direita
+        // e as folhas ficam no fillfactor (90%)
+        assertTrue(v7.pkeyBytes() < v4.pkeyBytes() * 0.9, "pkey v7 " + v7.pkeyBytes() + " vs v4 " + v4.pkeyBytes());
+        assertTrue(v7.linkBytes() < v4.linkBytes() * 0.9, "album_artists v7 " + v7.linkBytes() + " vs v4 " + v4.linkBytes());
+        assertTrue(v7.lastTenthRowsPerSecond() > v4.lastTenthRowsPerSecond(),
+                "v7 " + v7.lastTenthRowsPerSecond() + " vs v4 " + v4.lastTenthRowsPerSecond() + " linhas/s");
+    }
+
+    private Result load(String label, Supplier<UUID> ids) throws SQLException {
+        String albums = "bench_albums_" + label;
+        String links = "bench_album_artists_" + label;
+        UUID[] artists = new UUID[ARTISTS];
+        for (int i = 0; i < ARTISTS; i++) {
+            artists[i] = UUID.randomUUID();
+        }
+
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true", POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("CREATE TABLE " + albums + " (id UUID PRIMARY KEY, title VARCHAR(255) NOT NULL)");
+                ddl.execute("CREATE TABLE " + links + " (album_id UUID NOT NULL, artist_id UUID NOT NULL, "
+                        + "PRIMARY KEY (album_id, artist_id))");
+            }
+            connection.setAutoCommit(false);
+
+            long start = System.nanoTime();
+            long lastTenthStart = start;
+            int lastTenthFrom = ROWS - ROWS / 10;
+            try (PreparedStatement album = connection.prepareStatement("INSERT INTO " + albums + " (id, title) VALUES (?, ?)");
+                 PreparedStatement link = connection.prepareStatement("INSERT INTO " + links + " (album_id, artist_id) VALUES (?, ?)")) {
+                for (int i = 0; i < ROWS; i++) {
+                    if (i == lastTenthFrom) {
+                        lastTenthStart = System.nanoTime();
+                    }
+                    UUID id = ids.get();
+                    album.setObject(1, id);
+                    album.setString(2, "Album " + i);
+                    album.addBatch();
+                    link.setObject(1, id);
+                    link.setObject(2, artists[i % ARTISTS]);
+                    link.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        album.executeBatch();
+                        link.executeBatch();
+                    }
+                    if ((i + 1) % COMMIT_EVERY == 0) {
+                        connection.commit();
+                    }
+                }
+                album.executeBatch();
+                link.executeBatch();
+                connection.commit();
+            }
+            long end = System.nanoTime();
+
+            return new Result(label,
+                    ROWS / ((end - start) / 1e9),
+                    (ROWS - lastTenthFrom) / ((end - lastTenthStart) / 1e9),
+                    relationSize(connection, albums + "_pkey"),
+                    relationSize(connection, links + "_pkey"));
+        }
+    }
+
+    private static long relationSize(Connection connection, String relation) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            ps.setString(1, relation);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.wendrewnick.musicmanager.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void stateless_ShouldBuildPrincipalFromClaims_WithoutLoadingUser() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        when(jwtService.verify("token")).thenReturn(claims(0));
+        when(tokenVersionCache.isCurrent("admin", 0)).thenReturn(true);
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        assertEquals("admin", auth.getName());
+        assertEquals(List.of("ROLE_ADMIN"), auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void stateless_ShouldRejectRevokedTokenVersion() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", true);
+        when(jwtService.verify("token")).thenReturn(claims(0));
+        when(tokenVersionCache.isCurrent("admin", 0)).thenReturn(false);
+
+        filter.doFilter(bearer("token"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    private static Claims claims(int tokenVersion) {
+        return Jwts.claims()
+                .subject("admin")
+                .add(Map.of(JwtService.ROLES_CLAIM, List.of("ROLE_ADMIN"), JwtService.TOKEN_VERSION_CLAIM, tokenVersion))
+                .build();
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/albums");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,93 @@
+package com.wendrewnick.musicmanager.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final UserDetails admin = new User("admin", "senha", List.of());
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newJwtService(300000);
+    }
+
+    @Test
+    void verify_ShouldReturnClaims_AndReuseThemForTheSameToken() {
+        String token = jwtService.generateAccessToken(admin);
+
+        Claims first = jwtService.verify(token);
+        Claims second = jwtService.verify(token);
+
+        assertEquals("admin", first.getSubject());
+        assertSame(first, second);
+        assertTrue(jwtService.isTokenValid(token, admin));
+    }
+
+    @Test
+    void verify_ShouldRejectTamperedToken() {
+        String token = jwtService.generateAccessToken(admin);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> jwtService.verify(tampered));
+    }
+
+    @Test
+    void verify_ShouldRejectExpiredToken() {
+        String expired = newJwtService(-1000).generateAccessToken(admin);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.verify(expired));
+    }
+
+    @Test
+    void generateAccessToken_ShouldCarryRolesAndTokenVersion() {
+        var user = com.wendrewnick.musicmanager.entity.User.builder()
+                .username("admin")
+                .password("senha")
+                .tokenVersion(3)
+                .build();
+
+        Claims claims = jwtService.verify(jwtService.generateAccessToken(user));
+
+        assertEquals(List.of("ROLE_ADMIN"), claims.get(JwtService.ROLES_CLAIM, List.class));
+        assertEquals(3, JwtService.tokenVersionOf(claims));
+    }
+
+    @Test
+    void isTokenValid_ShouldRejectTokenIssuedBeforeRevocation() {
+        var user = com.wendrewnick.musicmanager.entity.User.builder()
+                .username("admin")
+                .password("senha")
+                .build();
+        String token = jwtService.generateRefreshToken(user);
+
+        user.setTokenVersion(1);
+
+        assertFalse(jwtService.isTokenValid(token, user));
+    }
+
+    private static JwtService newJwtService(long accessTokenExpiration) {
+        JwtService service = new JwtService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "accessTokenExpiration", accessTokenExpiration);
+        ReflectionTestUtils.setField(service, "refreshTokenExpiration", 86400000L);
+        ReflectionTestUtils.setField(service, "verifiedCacheMaxSize", 100L);
+        service.init();
+        return service;
+    }
+}
@@ -0,0 +1,47 @@
+package com.wendrewnick.musicmanager.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBucketStoreTest {
+
+    private static final BucketConfiguration ONE_PER_MINUTE = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder().capacity(1).refillGreedy(1, Duration.ofMinutes(1)).build())
+            .build();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tryConsume_ShouldKeepOneBucketPerKey() {
+        try (LocalBucketStore store = new LocalBucketStore(meterRegistry, "rate-limit.buckets", 100, Duration.ofMinutes(10))) {
+            assertTrue(store.tryConsume("ip:10.0.0.1", ONE_PER_MINUTE).isConsumed());
+            assertFalse(store.tryConsume("ip:10.0.0.1", ONE_PER_MINUTE).isConsumed());
+            assertTrue(store.tryConsume("ip:10.0.0.2", ONE_PER_MINUTE).isConsumed());
+        }
+    }
+
+    @Test
+    void tryConsume_ShouldEvictBeyondMaximumSize_UnderIpFlood() throws InterruptedException {
+        try (LocalBucketStore store = new LocalBucketStore(meterRegistry, "rate-limit.buckets", 100, Duration.ofMinutes(10))) {
+            for (int i = 0; i < 10_000; i++) {
+                store.tryConsume("ip:spoofed-" + i, ONE_PER_MINUTE);
+            }
+
+            // O despejo roda na manutenção assíncrona do Caffeine
+            double size = Double.MAX_VALUE;
+            for (int attempt = 0; attempt < 50 && size > 100; attempt++) {
+                Thread.sleep(20);
+                size = meterRegistry.get("cache.size").tag("cache", "rate-limit.buckets").gauge().value();
+            }
+            assertTrue(size <= 100, "buckets vivos: " + size);
+            assertTrue(meterRegistry.get("cache.evictions").tag("cache", "rate-limit.buckets")
+                    .functionCounter().count() >= 9_900);
+        }
+    }
+}
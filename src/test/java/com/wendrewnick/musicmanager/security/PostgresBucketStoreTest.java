@@ -0,0 +1,38 @@
+package com.wendrewnick.musicmanager.security;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PostgresBucketStoreTest {
+
+    private static final BucketConfiguration TWO_PER_MINUTE = BucketConfiguration.builder()
+            .addLimit(Bandwidth.builder().capacity(2).refillGreedy(2, Duration.ofMinutes(1)).build())
+            .build();
+
+    @Test
+    void tryConsume_ShouldFallBackToLocalBuckets_WhenDatabaseIsUnavailable() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        try (PostgresBucketStore store = new PostgresBucketStore(dataSource, meterRegistry, 1000, Duration.ofMinutes(10), 0,
+                Duration.ZERO, Duration.ofMinutes(1))) {
+            assertTrue(store.tryConsume("user:admin", TWO_PER_MINUTE).isConsumed());
+            assertTrue(store.tryConsume("user:admin", TWO_PER_MINUTE).isConsumed());
+            assertFalse(store.tryConsume("user:admin", TWO_PER_MINUTE).isConsumed());
+        }
+
+        // Depois da primeira falha o banco não é consultado até o fim de retry-after
+        verify(dataSource, times(1)).getConnection();
+        assertEquals(3.0, meterRegistry.get("rate-limit.store.fallbacks").counter().count());
+    }
+}
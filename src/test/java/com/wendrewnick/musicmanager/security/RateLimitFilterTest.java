@@ -0,0 +1,80 @@
+package com.wendrewnick.musicmanager.security;
+
+import io.github.bucket4j.ConsumptionProbe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private final RateLimitBucketStore bucketStore = mock(RateLimitBucketStore.class);
+    private final RateLimitFilter filter = new RateLimitFilter(bucketStore, new RateLimitTierProperties(List.of()));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "rateLimitEnabled", true);
+        ReflectionTestUtils.setField(filter, "requestsPerMinute", 10);
+        filter.initTiers();
+    }
+
+    @Test
+    void doFilter_ShouldReportResetFromBucketState() throws Exception {
+        when(bucketStore.tryConsume(anyString(), any()))
+                .thenReturn(ConsumptionProbe.consumed(7, TimeUnit.SECONDS.toNanos(18)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request(), response, new MockFilterChain());
+
+        assertEquals("7", response.getHeader("X-RateLimit-Remaining"));
+        assertEquals(Instant.now().getEpochSecond() + 18, Long.parseLong(response.getHeader("X-RateLimit-Reset")), 1);
+    }
+
+    @Test
+    void doFilter_ShouldReturnRetryAfterFromRefillTime_WhenRejected() throws Exception {
+        when(bucketStore.tryConsume(anyString(), any())).thenReturn(ConsumptionProbe.rejected(0,
+                TimeUnit.MILLISECONDS.toNanos(5_500), TimeUnit.SECONDS.toNanos(54)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request(), response, chain);
+
+        assertEquals(429, response.getStatus());
+        assertEquals("6", response.getHeader("Retry-After"));
+        assertEquals(Instant.now().getEpochSecond() + 54, Long.parseLong(response.getHeader("X-RateLimit-Reset")), 1);
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_ShouldWaitForImminentRefill_WhenShortWaitEnabled() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxWaitMs", 50L);
+        when(bucketStore.tryConsume(anyString(), any()))
+                .thenReturn(ConsumptionProbe.rejected(0, TimeUnit.MILLISECONDS.toNanos(2), TimeUnit.SECONDS.toNanos(6)))
+                .thenReturn(ConsumptionProbe.consumed(0, TimeUnit.SECONDS.toNanos(6)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request(), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        verify(bucketStore, times(2)).tryConsume(anyString(), any());
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/albums");
+        request.setRequestURI("/api/v1/albums");
+        return request;
+    }
+}
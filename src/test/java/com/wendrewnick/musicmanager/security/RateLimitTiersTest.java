@@ -0,0 +1,40 @@
+package com.wendrewnick.musicmanager.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTiersTest {
+
+    private final RateLimitTiers tiers = RateLimitTiers.compile(List.of(
+            new RateLimitTierProperties.Tier("album-writes", "/api/v1/albums/**", List.of("POST", "PUT", "DELETE"), 6, 2, Duration.ofSeconds(1)),
+            new RateLimitTierProperties.Tier("regionais", "/api/v1/regionais/**", List.of("get"), 60, 0, null),
+            new RateLimitTierProperties.Tier("artists", "/api/v1/artists/**", List.of(), 30, 0, null)), 10);
+
+    @Test
+    void resolve_ShouldMatchPatternAndMethod() {
+        assertEquals("album-writes", tiers.resolve("POST", "/api/v1/albums").name());
+        assertEquals("album-writes", tiers.resolve("DELETE", "/api/v1/albums/" + UUID.randomUUID()).name());
+        assertEquals("regionais", tiers.resolve("GET", "/api/v1/regionais").name());
+        assertEquals("artists", tiers.resolve("PUT", "/api/v1/artists/1").name());
+    }
+
+    @Test
+    void resolve_ShouldFallBackToDefaultTier() {
+        RateLimitTiers.Tier tier = tiers.resolve("GET", "/api/v1/albums");
+
+        assertEquals(RateLimitTiers.DEFAULT_TIER, tier.name());
+        assertEquals(10, tier.limit());
+        assertEquals(RateLimitTiers.DEFAULT_TIER, tiers.resolve("PATCH", "/api/v1/regionais").name());
+    }
+
+    @Test
+    void compile_ShouldAddBurstBandwidthOnlyWhenConfigured() {
+        assertEquals(2, tiers.resolve("POST", "/api/v1/albums").configuration().getBandwidths().length);
+        assertEquals(1, tiers.resolve("GET", "/api/v1/regionais").configuration().getBandwidths().length);
+    }
+}
@@ -0,0 +1,74 @@
+package com.wendrewnick.musicmanager.security;
+
+import com.wendrewnick.musicmanager.entity.User;
+import com.wendrewnick.musicmanager.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserCacheInvalidationListenerTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private UserDetailsServiceImpl userDetailsService;
+    private UserCacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new UserDetailsServiceImpl(userRepository, new SimpleMeterRegistry(),
+                mock(TokenVersionCache.class));
+        ReflectionTestUtils.setField(userDetailsService, "userCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(userDetailsService, "userCacheTtlSeconds", 300L);
+        userDetailsService.init();
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("userDetailsService", userDetailsService);
+        listener = new UserCacheInvalidationListener(beanFactory.getBeanProvider(UserDetailsServiceImpl.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void evict_ShouldDropEntryLoadedBetweenFlushAndCommit() {
+        User committed = User.builder().username("admin").password("hash-antigo").build();
+        User updated = User.builder().username("admin").password("hash-novo").build();
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(committed), Optional.of(updated));
+
+        TransactionSynchronizationManager.initSynchronization();
+        listener.evict(updated);
+        // Leitura concorrente entre o flush e o commit: o banco ainda devolve a linha antiga
+        assertEquals("hash-antigo", userDetailsService.loadUserByUsername("admin").getPassword());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals("hash-novo", userDetailsService.loadUserByUsername("admin").getPassword());
+    }
+
+    @Test
+    void evict_ShouldDropEntryImmediately_WithoutTransaction() {
+        User before = User.builder().username("admin").password("hash-antigo").build();
+        User after = User.builder().username("admin").password("hash-novo").build();
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(before), Optional.of(after));
+
+        userDetailsService.loadUserByUsername("admin");
+        listener.evict(after);
+
+        assertEquals("hash-novo", userDetailsService.loadUserByUsername("admin").getPassword());
+    }
+}
@@ -0,0 +1,80 @@
+package com.wendrewnick.musicmanager.security;
+
+import com.wendrewnick.musicmanager.entity.User;
+import com.wendrewnick.musicmanager.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserDetailsServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenVersionCache tokenVersionCache = mock(TokenVersionCache.class);
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new UserDetailsServiceImpl(userRepository, meterRegistry, tokenVersionCache);
+        ReflectionTestUtils.setField(userDetailsService, "userCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(userDetailsService, "userCacheTtlSeconds", 300L);
+        userDetailsService.init();
+    }
+
+    @Test
+    void loadUserByUsername_ShouldQueryDatabaseOnce() {
+        User admin = User.builder().username("admin").password("hash").build();
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(admin));
+
+        userDetailsService.loadUserByUsername("admin");
+        userDetailsService.loadUserByUsername("admin");
+
+        verify(userRepository, times(1)).findByUsername("admin");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "security.users").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldReloadAfterEviction() {
+        User before = User.builder().username("admin").password("hash-antigo").build();
+        User after = User.builder().username("admin").password("hash-novo").build();
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(before), Optional.of(after));
+
+        userDetailsService.loadUserByUsername("admin");
+        userDetailsService.evict("admin");
+
+        assertEquals("hash-novo", userDetailsService.loadUserByUsername("admin").getPassword());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldReload_WhenAnotherReplicaBumpedTokenVersion() {
+        User before = User.builder().username("admin").password("hash-antigo").tokenVersion(0).build();
+        User after = User.builder().username("admin").password("hash-novo").tokenVersion(1).build();
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(before), Optional.of(after));
+
+        userDetailsService.loadUserByUsername("admin");
+        when(tokenVersionCache.currentVersion("admin")).thenReturn(1);
+
+        assertEquals("hash-novo", userDetailsService.loadUserByUsername("admin").getPassword());
+        assertEquals("hash-novo", userDetailsService.loadUserByUsername("admin").getPassword());
+        verify(userRepository, times(2)).findByUsername("admin");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldNotCacheMissingUser() {
+        when(userRepository.findByUsername("ninguem")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ninguem"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ninguem"));
+
+        verify(userRepository, times(2)).findByUsername("ninguem");
+    }
+}
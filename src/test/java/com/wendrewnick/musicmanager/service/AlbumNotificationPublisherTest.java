@@ -0,0 +1,114 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlbumNotificationPublisherTest {
+
+    @Mock
+    private AlbumBroadcaster broadcaster;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AlbumNotificationPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new AlbumNotificationPublisher(broadcaster, meterRegistry);
+        ReflectionTestUtils.setField(publisher, "bufferSize", 3);
+        ReflectionTestUtils.setField(publisher, "maxBatchSize", 100);
+        // Intervalo longo: os testes disparam o flush manualmente
+        ReflectionTestUtils.setField(publisher, "flushIntervalMs", 3_600_000L);
+        publisher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldSendOneFrame_WithEventsMergedPerAlbum() {
+        UUID id = UUID.randomUUID();
+        UUID deletedId = UUID.randomUUID();
+        publisher.publish(event(AlbumChangeEvent.Type.CREATED, id, 0L, Map.of("title", "Antigo", "year", 2020)));
+        publisher.publish(event(AlbumChangeEvent.Type.UPDATED, id, 1L, Map.of("title", "Novo")));
+        publisher.publish(event(AlbumChangeEvent.Type.DELETED, deletedId, 4L, null));
+
+        publisher.flush();
+
+        ArgumentCaptor<List<AlbumChangeEvent>> frame = ArgumentCaptor.forClass(List.class);
+        verify(broadcaster, times(1)).broadcast(frame.capture());
+        List<AlbumChangeEvent> events = frame.getValue();
+        assertEquals(2, events.size());
+        assertEquals(AlbumChangeEvent.Type.CREATED, events.get(0).getType());
+        assertEquals(1L, events.get(0).getVersion());
+        assertEquals(Map.of("title", "Novo", "year", 2020), events.get(0).getChanges());
+        assertEquals(AlbumChangeEvent.Type.DELETED, events.get(1).getType());
+        assertEquals(deletedId, events.get(1).getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_ShouldDropOldest_WhenBufferIsFull() {
+        for (int i = 1; i <= 5; i++) {
+            publisher.publish(event(AlbumChangeEvent.Type.CREATED, UUID.randomUUID(), 0L, Map.of("title", "Album " + i)));
+        }
+
+        publisher.flush();
+
+        ArgumentCaptor<List<AlbumChangeEvent>> frame = ArgumentCaptor.forClass(List.class);
+        verify(broadcaster).broadcast(frame.capture());
+        assertEquals(List.of("Album 3", "Album 4", "Album 5"),
+                frame.getValue().stream().map(event -> event.getChanges().get("title")).toList());
+        assertEquals(2.0, meterRegistry.counter("websocket.notifications.dropped").count());
+    }
+
+    @Test
+    void publish_InsideTransaction_ShouldWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publish(event(AlbumChangeEvent.Type.CREATED, UUID.randomUUID(), 0L, Map.of("title", "Pendente")));
+            publisher.flush();
+            verifyNoInteractions(broadcaster);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        publisher.flush();
+
+        verify(broadcaster).broadcast(any());
+    }
+
+    @Test
+    void flush_ShouldNotSend_WhenBufferIsEmpty() {
+        publisher.flush();
+
+        verifyNoInteractions(broadcaster);
+    }
+
+    private static AlbumChangeEvent event(AlbumChangeEvent.Type type, UUID id, Long version, Map<String, Object> changes) {
+        return AlbumChangeEvent.builder().type(type).id(id).version(version).changes(changes).build();
+    }
+}
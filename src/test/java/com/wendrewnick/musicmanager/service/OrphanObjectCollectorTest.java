@@ -0,0 +1,189 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.wendrewnick.musicmanager.entity.StorageGcState;
+import com.wendrewnick.musicmanager.repository.AlbumRepository;
+import com.wendrewnick.musicmanager.repository.CoverThumbnailRepository;
+import com.wendrewnick.musicmanager.repository.StorageGcStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.messages.Item;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanObjectCollectorTest {
+
+    @Mock
+    private MinioClient minioClient;
+
+    @Mock
+    private AlbumRepository albumRepository;
+
+    @Mock
+    private StorageGcStateRepository stateRepository;
+
+    @Mock
+    private CoverThumbnailRepository coverThumbnailRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrphanObjectCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        collector = new OrphanObjectCollector(minioClient, albumRepository, stateRepository, coverThumbnailRepository,
+                meterRegistry);
+        ReflectionTestUtils.setField(collector, "bucketName", "music-covers");
+        ReflectionTestUtils.setField(collector, "enabled", true);
+        ReflectionTestUtils.setField(collector, "batchSize", 4);
+        ReflectionTestUtils.setField(collector, "batchesPerRun", 10);
+        ReflectionTestUtils.setField(collector, "gracePeriodHours", 24L);
+        ReflectionTestUtils.setField(collector, "deletesPerSecond", 100);
+        ReflectionTestUtils.setField(collector, "leaseMs", 60_000L);
+        collector.init();
+    }
+
+    @Test
+    void sweepBatch_ShouldDeleteOnlyOldUnreferencedObjects() throws Exception {
+        ZonedDateTime old = ZonedDateTime.now().minusDays(2);
+        List<Result<Item>> listing = List.of(
+                item("covers/sha256/orfa", old),
+                item("covers/sha256/usada", old),
+                item("covers/sha256/recente", ZonedDateTime.now()),
+                item("thumbnails/128/covers/sha256/orfa", old));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+        when(albumRepository.findReferencedImageKeys(Set.of("covers/sha256/orfa", "covers/sha256/usada")))
+                .thenReturn(List.of("covers/sha256/usada"));
+        when(albumRepository.findReferencedImageKeys(Set.of("covers/sha256/orfa"))).thenReturn(List.of());
+        StatObjectResponse stat = stat(old);
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+        when(minioClient.removeObjects(any())).thenReturn(List.of());
+
+        String resumeAfter = collector.sweepBatch(null);
+
+        assertEquals("thumbnails/128/covers/sha256/orfa", resumeAfter);
+        assertEquals(List.of("covers/sha256/orfa", "thumbnails/128/covers/sha256/orfa"), removedNames());
+        // A capa dona é conferida uma vez, valendo também para a miniatura
+        verify(minioClient, times(1)).statObject(any(StatObjectArgs.class));
+        assertEquals(4, meterRegistry.counter("storage.gc.objects.scanned").count());
+        assertEquals(2, meterRegistry.counter("storage.gc.objects.deleted").count());
+        verify(coverThumbnailRepository).deleteByImageKeyIn(Set.of("covers/sha256/orfa"));
+    }
+
+    @Test
+    void sweepBatch_ShouldKeepObjects_RefreshedOrReferencedAfterListing() throws Exception {
+        ZonedDateTime old = ZonedDateTime.now().minusDays(2);
+        List<Result<Item>> listing = List.of(item("covers/sha256/reaproveitada", old), item("covers/sha256/associada", old));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+        when(albumRepository.findReferencedImageKeys(Set.of("covers/sha256/reaproveitada", "covers/sha256/associada")))
+                .thenReturn(List.of());
+        // Um upload renovou o objeto depois da listagem
+        StatObjectResponse refreshed = stat(ZonedDateTime.now());
+        StatObjectResponse stale = stat(old);
+        when(minioClient.statObject(argThat((StatObjectArgs args) -> args != null && args.object().endsWith("reaproveitada"))))
+                .thenReturn(refreshed);
+        when(minioClient.statObject(argThat((StatObjectArgs args) -> args != null && args.object().endsWith("associada"))))
+                .thenReturn(stale);
+        // E um álbum passou a referenciar a outra capa
+        when(albumRepository.findReferencedImageKeys(Set.of("covers/sha256/associada")))
+                .thenReturn(List.of("covers/sha256/associada"));
+
+        assertNull(collector.sweepBatch(null));
+
+        verify(minioClient, never()).removeObjects(any());
+        assertEquals(0, meterRegistry.counter("storage.gc.objects.deleted").count());
+    }
+
+    @Test
+    void collect_ShouldResumeFromStoredPositionAndRestartAtEndOfBucket() throws Exception {
+        ZonedDateTime recent = ZonedDateTime.now();
+        List<Result<Item>> firstPage = List.of(item("a", recent), item("b", recent), item("c", recent), item("d", recent));
+        List<Result<Item>> lastPage = List.of(item("e", recent));
+        when(stateRepository.tryLock(eq(OrphanObjectCollector.STATE_NAME), anyString(), any(), any())).thenReturn(1);
+        when(stateRepository.findById(OrphanObjectCollector.STATE_NAME))
+                .thenReturn(Optional.of(StorageGcState.builder().name("covers").resumeAfter("0").lockedUntil(Instant.EPOCH).build()));
+        when(stateRepository.savePosition(eq(OrphanObjectCollector.STATE_NAME), anyString(), any(), any())).thenReturn(1);
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(firstPage).thenReturn(lastPage);
+
+        collector.collect();
+
+        ArgumentCaptor<ListObjectsArgs> listings = ArgumentCaptor.forClass(ListObjectsArgs.class);
+        verify(minioClient, times(2)).listObjects(listings.capture());
+        assertEquals("0", listings.getAllValues().get(0).startAfter());
+        assertEquals("d", listings.getAllValues().get(1).startAfter());
+        verify(stateRepository).savePosition(eq(OrphanObjectCollector.STATE_NAME), anyString(), eq("d"), any());
+        verify(stateRepository).savePosition(eq(OrphanObjectCollector.STATE_NAME), anyString(), isNull(), any());
+        verify(stateRepository).unlock(eq(OrphanObjectCollector.STATE_NAME), anyString(), any());
+        assertEquals(1, meterRegistry.counter("storage.gc.passes").count());
+        verifyNoInteractions(albumRepository);
+    }
+
+    @Test
+    void collect_ShouldDoNothing_WhenAnotherReplicaHoldsLease() {
+        when(stateRepository.tryLock(eq(OrphanObjectCollector.STATE_NAME), anyString(), any(), any())).thenReturn(0);
+
+        collector.collect();
+
+        verifyNoInteractions(minioClient, albumRepository);
+        verify(stateRepository, never()).unlock(any(), any(), any());
+    }
+
+    @Test
+    void collect_ShouldStop_WhenLeaseIsLost() {
+        ZonedDateTime recent = ZonedDateTime.now();
+        when(stateRepository.tryLock(eq(OrphanObjectCollector.STATE_NAME), anyString(), any(), any())).thenReturn(1);
+        when(stateRepository.findById(OrphanObjectCollector.STATE_NAME)).thenReturn(Optional.empty());
+        when(stateRepository.savePosition(eq(OrphanObjectCollector.STATE_NAME), anyString(), any(), any())).thenReturn(0);
+        List<Result<Item>> page = List.of(item("a", recent), item("b", recent), item("c", recent), item("d", recent));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(page);
+
+        collector.collect();
+
+        verify(minioClient, times(1)).listObjects(any(ListObjectsArgs.class));
+    }
+
+    private List<Object> removedNames() throws Exception {
+        ArgumentCaptor<RemoveObjectsArgs> removed = ArgumentCaptor.forClass(RemoveObjectsArgs.class);
+        verify(minioClient).removeObjects(removed.capture());
+        return StreamSupport.stream(removed.getValue().objects().spliterator(), false)
+                .map(object -> ReflectionTestUtils.getField(object, "name"))
+                .toList();
+    }
+
+    private static StatObjectResponse stat(ZonedDateTime lastModified) {
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.lastModified()).thenReturn(lastModified);
+        return stat;
+    }
+
+    private static Result<Item> item(String name, ZonedDateTime lastModified) {
+        Item item = mock(Item.class);
+        lenient().when(item.objectName()).thenReturn(name);
+        lenient().when(item.lastModified()).thenReturn(lastModified);
+        return new Result<>(item);
+    }
+}
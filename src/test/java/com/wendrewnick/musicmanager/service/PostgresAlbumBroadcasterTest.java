@@ -0,0 +1,70 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PostgresAlbumBroadcasterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private PostgresAlbumBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new PostgresAlbumBroadcaster(mock(DataSource.class), "jdbc:postgresql://localhost/nenhum", "u", "p",
+                mock(SimpMessagingTemplate.class), objectMapper, meterRegistry, Duration.ofSeconds(1));
+    }
+
+    @Test
+    void toPayloads_ShouldSplitBatchIntoArraysThatFitNotify() throws Exception {
+        List<AlbumChangeEvent> events = IntStream.range(0, 300)
+                .mapToObj(i -> AlbumChangeEvent.builder().type(AlbumChangeEvent.Type.CREATED).id(UUID.randomUUID())
+                        .version(0L).changes(Map.of("title", "Álbum " + i, "year", 2000)).build())
+                .toList();
+
+        List<String> payloads = broadcaster.toPayloads(events);
+
+        assertTrue(payloads.size() > 1);
+        List<UUID> delivered = new ArrayList<>();
+        for (String payload : payloads) {
+            assertTrue(payload.getBytes(StandardCharsets.UTF_8).length <= PostgresAlbumBroadcaster.MAX_PAYLOAD_BYTES);
+            objectMapper.readValue(payload, new TypeReference<List<AlbumChangeEvent>>() { })
+                    .forEach(event -> delivered.add(event.getId()));
+        }
+        assertEquals(events.stream().map(AlbumChangeEvent::getId).toList(), delivered);
+    }
+
+    @Test
+    void toPayloads_ShouldDropChanges_WhenSingleEventExceedsLimit() throws Exception {
+        UUID id = UUID.randomUUID();
+        AlbumChangeEvent event = AlbumChangeEvent.builder().type(AlbumChangeEvent.Type.UPDATED).id(id).version(7L)
+                .changes(Map.of("title", "x".repeat(PostgresAlbumBroadcaster.MAX_PAYLOAD_BYTES))).build();
+
+        List<String> payloads = broadcaster.toPayloads(List.of(event));
+
+        assertEquals(1, payloads.size());
+        AlbumChangeEvent sent = objectMapper.readValue(payloads.get(0), new TypeReference<List<AlbumChangeEvent>>() { }).get(0);
+        assertEquals(id, sent.getId());
+        assertEquals(7L, sent.getVersion());
+        assertNull(sent.getChanges());
+        assertEquals(1.0, meterRegistry.counter("websocket.broker.truncated").count());
+    }
+}
@@ -0,0 +1,178 @@
+package com.wendrewnick.musicmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.wendrewnick.musicmanager.dto.RegionalExternalDTO;
+import com.wendrewnick.musicmanager.dto.RegionalResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegionalServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JdbcTemplate jdbcTemplate;
+    private HttpServer server;
+    private RegionalService regionalService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:regionais-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        regionalService = new RegionalService(new ObjectMapper(), jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), meterRegistry);
+        ReflectionTestUtils.setField(regionalService, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(regionalService, "readTimeoutMs", 1000L);
+        regionalService.initHttpClient();
+    }
+
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void applyRemote_ShouldInsertNewAndDeactivateRemovedOrRenamed() {
+        regionalService.applyRemote(byId(
+                new RegionalExternalDTO(1, "Cuiabá"),
+                new RegionalExternalDTO(2, "Várzea Grande"),
+                new RegionalExternalDTO(3, "Rondonópolis")));
+
+        boolean changed = regionalService.applyRemote(byId(
+                new RegionalExternalDTO(1, "Cuiabá"),
+                new RegionalExternalDTO(2, "Várzea Grande Centro")));
+
+        assertTrue(changed);
+        assertEquals(List.of("1:Cuiabá", "2:Várzea Grande Centro"), jdbcTemplate.queryForList(
+                "SELECT regional_id || ':' || nome FROM regionais WHERE ativo = true ORDER BY regional_id", String.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM regionais WHERE ativo = false", Integer.class));
+        assertEquals(4.0, meterRegistry.get("regionais.sync.rows").tag("operation", "inserted").counter().count());
+        assertEquals(2.0, meterRegistry.get("regionais.sync.rows").tag("operation", "deactivated").counter().count());
+    }
+
+    @Test
+    void applyRemote_ShouldSkipDatabase_WhenPayloadIsUnchanged() {
+        regionalService.applyRemote(byId(new RegionalExternalDTO(1, "Cuiabá"), new RegionalExternalDTO(2, "Sinop")));
+        jdbcTemplate.update("DELETE FROM regionais");
+
+        // Mesma lista em outra ordem: o hash não muda e nada é consultado nem gravado
+        boolean changed = regionalService.applyRemote(byId(new RegionalExternalDTO(2, "Sinop"), new RegionalExternalDTO(1, "Cuiabá")));
+
+        assertFalse(changed);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM regionais", Integer.class));
+    }
+
+    @Test
+    void syncRegionals_ShouldSendValidatorsAndSkipOnNotModified() throws Exception {
+        List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/regionais", exchange -> {
+            ifNoneMatch.add(String.valueOf(exchange.getRequestHeaders().getFirst("If-None-Match")));
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = "[{\"id\":1,\"nome\":\"Cuiabá\"},{\"id\":2,\"nome\":\"Sinop\"}]".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        ReflectionTestUtils.setField(regionalService, "apiUrl",
+                "http://localhost:" + server.getAddress().getPort() + "/v1/regionais");
+
+        regionalService.syncRegionals();
+        regionalService.syncRegionals();
+
+        assertEquals(List.of("null", "\"v1\""), ifNoneMatch);
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM regionais WHERE ativo = true", Integer.class));
+        assertEquals(1, meterRegistry.get("regionais.sync").tag("outcome", "changed").timer().count());
+        assertEquals(1, meterRegistry.get("regionais.sync").tag("outcome", "not-modified").timer().count());
+    }
+
+    @Test
+    void syncRegionals_ShouldGiveUp_WhenServerStallsMidBody() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/v1/regionais", exchange -> {
+            // Cabeçalhos e parte do array chegam; o resto do corpo nunca vem
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().write("[{\"id\":1,\"nome\":\"Cuiabá\"},".getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseBody().flush();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        ReflectionTestUtils.setField(regionalService, "apiUrl",
+                "http://localhost:" + server.getAddress().getPort() + "/v1/regionais");
+
+        try {
+            // read-timeout-ms = 1000 no setUp; as duas execuções terminam, então o lock foi liberado
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                regionalService.syncRegionals();
+                regionalService.syncRegionals();
+            });
+        } finally {
+            release.countDown();
+        }
+
+        assertEquals(2, meterRegistry.get("regionais.sync").tag("outcome", "error").timer().count());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT count(*) FROM regionais", Integer.class));
+    }
+
+    @Test
+    void snapshot_ShouldBeSwappedAfterChange_AndServeFiltersFromMemory() {
+        regionalService.applyRemote(byId(new RegionalExternalDTO(1, "Cuiabá"), new RegionalExternalDTO(2, "Sinop")));
+        RegionalSnapshot before = regionalService.snapshot();
+
+        regionalService.applyRemote(byId(new RegionalExternalDTO(1, "Cuiabá Norte"), new RegionalExternalDTO(2, "Sinop")));
+        RegionalSnapshot after = regionalService.snapshot();
+        jdbcTemplate.update("DELETE FROM regionais");
+
+        assertNotEquals(before.etag(), after.etag());
+        assertEquals(List.of("Cuiabá Norte", "Cuiabá"), after.find(null, 1, null).stream().map(RegionalResponseDTO::getNome).toList());
+        assertEquals(List.of("Cuiabá Norte"), after.find("CUIABÁ", null, true).stream().map(RegionalResponseDTO::getNome).toList());
+        assertEquals(1, after.find(null, null, false).size());
+        assertEquals(3, after.find(null, null, null).size());
+        assertEquals(2, before.find(null, null, null).size());
+    }
+
+    private static SortedMap<Integer, RegionalExternalDTO> byId(RegionalExternalDTO... regionais) {
+        SortedMap<Integer, RegionalExternalDTO> byId = new TreeMap<>();
+        for (RegionalExternalDTO regional : regionais) {
+            byId.putIfAbsent(regional.id(), regional);
+        }
+        return byId;
+    }
+}
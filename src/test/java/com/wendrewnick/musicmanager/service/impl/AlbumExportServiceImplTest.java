@@ -0,0 +1,66 @@
+package com.wendrewnick.musicmanager.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AlbumExportServiceImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AlbumExportServiceImpl exportService = new AlbumExportServiceImpl(jdbcTemplate, new ObjectMapper());
+
+    @Test
+    void exportNdjson_ShouldWriteOneObjectPerLine_WithoutSeparatorBetweenRows() throws Exception {
+        UUID first = UUID.fromString("018f0000-0000-7000-8000-000000000001");
+        UUID second = UUID.fromString("018f0000-0000-7000-8000-000000000002");
+        ResultSet firstRow = row(first, "Álbum A", 2000, new Object[]{"Artista"}, new Object[]{"covers/sha256/aa"});
+        ResultSet secondRow = row(second, "Álbum B", null, new Object[]{"Artista", "Banda"}, new Object[]{});
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(firstRow);
+            handler.processRow(secondRow);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportNdjson(output);
+
+        String expected = "{\"id\":\"" + first + "\",\"title\":\"Álbum A\",\"year\":2000,"
+                + "\"artistNames\":[\"Artista\"],\"coverKeys\":[\"covers/sha256/aa\"]}\n"
+                + "{\"id\":\"" + second + "\",\"title\":\"Álbum B\",\"year\":null,"
+                + "\"artistNames\":[\"Artista\",\"Banda\"],\"coverKeys\":[]}\n";
+        assertEquals(expected, output.toString(UTF_8));
+    }
+
+    private static ResultSet row(UUID id, String title, Integer year, Object[] artistNames, Object[] coverKeys)
+            throws SQLException {
+        Array artists = array(artistNames);
+        Array covers = array(coverKeys);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getObject("id", UUID.class)).thenReturn(id);
+        when(resultSet.getString("title")).thenReturn(title);
+        when(resultSet.getObject("release_year", Integer.class)).thenReturn(year);
+        when(resultSet.getArray("artist_names")).thenReturn(artists);
+        when(resultSet.getArray("cover_keys")).thenReturn(covers);
+        return resultSet;
+    }
+
+    private static Array array(Object[] values) throws SQLException {
+        Array array = mock(Array.class);
+        when(array.getArray()).thenReturn(values);
+        return array;
+    }
+}
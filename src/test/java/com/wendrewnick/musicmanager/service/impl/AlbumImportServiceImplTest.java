@@ -0,0 +1,120 @@
+package com.wendrewnick.musicmanager.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wendrewnick.musicmanager.dto.AlbumImportResultDTO;
+import com.wendrewnick.musicmanager.entity.Artist;
+import com.wendrewnick.musicmanager.repository.ArtistRepository;
+import com.wendrewnick.musicmanager.service.AlbumNotificationPublisher;
+import com.wendrewnick.musicmanager.service.ThumbnailService;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AlbumImportServiceImplTest {
+
+    private final ArtistRepository artistRepository = mock(ArtistRepository.class);
+    private final AlbumNotificationPublisher notificationPublisher = mock(AlbumNotificationPublisher.class);
+    private final ThumbnailService thumbnailService = mock(ThumbnailService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final Artist artist = Artist.builder().id(UUID.randomUUID()).name("Artista").build();
+
+    private ValidatorFactory validatorFactory;
+    private AlbumImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importService = new AlbumImportServiceImpl(artistRepository, notificationPublisher, thumbnailService, transactionTemplate,
+                new ObjectMapper(), validatorFactory.getValidator());
+        ReflectionTestUtils.setField(importService, "entityManager", entityManager);
+        when(artistRepository.findAllByIdInOrLowerNameIn(any(), any())).thenReturn(List.of(artist));
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void importAlbums_ShouldReportChunkAndContinue_WhenChunkTransactionFails() {
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new DataIntegrityViolationException("falha", new IllegalStateException("valor longo demais")))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<Object>>getArgument(0)
+                        .doInTransaction(mock(TransactionStatus.class)));
+
+        AlbumImportResultDTO result = importService.importAlbums(ndjson(album("Álbum A"), album("Álbum B"), album("Álbum C")), 2);
+
+        assertEquals(3, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals(2, result.getChunks().size());
+        AlbumImportResultDTO.Chunk failed = result.getChunks().get(0);
+        assertEquals(0, failed.getImported());
+        assertEquals("Lote não gravado: valor longo demais", failed.getError());
+        assertNull(result.getChunks().get(1).getError());
+        verify(notificationPublisher, times(1)).publish(any());
+        // Só as capas do lote gravado
+        verify(thumbnailService, times(1)).generateThumbnails(any());
+    }
+
+    @Test
+    void importAlbums_ShouldScheduleThumbnailsOncePerCover_AfterChunkCommit() {
+        runTransactionsInline();
+
+        AlbumImportResultDTO result = importService.importAlbums(ndjson(album("Álbum A"), album("Álbum B")), 10);
+
+        assertEquals(2, result.getImported());
+        verify(thumbnailService).generateThumbnails("covers/sha256/" + "0f".repeat(32));
+        verifyNoMoreInteractions(thumbnailService);
+    }
+
+    @Test
+    void importAlbums_ShouldApplyAlbumDtoRules() {
+        runTransactionsInline();
+
+        AlbumImportResultDTO result = importService.importAlbums(ndjson(
+                "{\"title\":\"Sem ano\",\"artistIds\":[\"" + artist.getId() + "\"]}",
+                "{\"title\":\"Capa fora do padrão\",\"year\":2000,\"artistIds\":[\"" + artist.getId() + "\"],"
+                        + "\"coverKeys\":[\"albums/outro/capa.jpg\"]}",
+                "{\"title\":\"Sem artista\",\"year\":2000}",
+                album("Válido")), 10);
+
+        assertEquals(1, result.getImported());
+        List<AlbumImportResultDTO.Failure> failures = result.getChunks().get(0).getFailures();
+        assertEquals("O ano é obrigatório", failures.get(0).getMessage());
+        assertTrue(failures.get(1).getMessage().startsWith("Chave de capa inválida"));
+        assertEquals("Pelo menos um artista (artistIds ou artistNames) é obrigatório", failures.get(2).getMessage());
+    }
+
+    private String album(String title) {
+        return "{\"title\":\"" + title + "\",\"year\":2000,\"artistIds\":[\"" + artist.getId() + "\"],"
+                + "\"coverKeys\":[\"covers/sha256/" + "0f".repeat(32) + "\"]}";
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+}
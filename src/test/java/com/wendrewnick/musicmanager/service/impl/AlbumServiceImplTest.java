@@ -1,29 +1,44 @@
 package com.wendrewnick.musicmanager.service.impl;
 
+import com.wendrewnick.musicmanager.dto.AlbumChangeEvent;
+import com.wendrewnick.musicmanager.dto.AlbumCoverDTO;
 import com.wendrewnick.musicmanager.dto.AlbumDTO;
+import com.wendrewnick.musicmanager.dto.CoverUploadUrlDTO;
 import com.wendrewnick.musicmanager.entity.Album;
 import com.wendrewnick.musicmanager.entity.Artist;
 import com.wendrewnick.musicmanager.exception.BusinessException;
 import com.wendrewnick.musicmanager.exception.ResourceNotFoundException;
+import com.wendrewnick.musicmanager.exception.StorageException;
 import com.wendrewnick.musicmanager.repository.AlbumRepository;
 import com.wendrewnick.musicmanager.repository.ArtistRepository;
+import com.wendrewnick.musicmanager.service.AlbumNotificationPublisher;
 import com.wendrewnick.musicmanager.service.MinioService;
+import com.wendrewnick.musicmanager.service.ThumbnailService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -42,7 +57,13 @@ class AlbumServiceImplTest {
     private MinioService minioService;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private AlbumNotificationPublisher notificationPublisher;
+
+    @Mock
+    private ThumbnailService thumbnailService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private AlbumServiceImpl albumService;
@@ -79,7 +100,70 @@ class AlbumServiceImplTest {
         assertEquals("Album Title", result.getTitle());
         verify(minioService).uploadFile(image);
         verify(albumRepository).save(any(Album.class));
-        verify(messagingTemplate).convertAndSend(eq("/topic/albums"), any(AlbumDTO.class));
+        verify(thumbnailService).generateThumbnails("cover-key");
+        verify(notificationPublisher).publish(argThat(event -> event.getType() == AlbumChangeEvent.Type.CREATED
+                && event.getId().equals(savedAlbum.getId())
+                && Integer.valueOf(1).equals(event.getChanges().get("coverCount"))
+                && !event.getChanges().containsKey("coverUrls")));
+    }
+
+    @Test
+    void create_ShouldUploadImagesConcurrently() {
+        UUID artistId = UUID.randomUUID();
+        Artist artist = Artist.builder().id(artistId).name("Artist Name").build();
+        AlbumDTO inputDTO = AlbumDTO.builder().title("Album Title").artistIds(List.of(artistId)).build();
+        MultipartFile first = mockImage();
+        MultipartFile second = mockImage();
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        when(artistRepository.findAllById(any())).thenReturn(List.of(artist));
+        when(minioService.uploadFile(any())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            // Só retorna se o outro upload estiver em andamento ao mesmo tempo
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            return invocation.getArgument(0) == first ? "first-key" : "second-key";
+        });
+        when(albumRepository.save(any(Album.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        AlbumDTO result = albumService.create(inputDTO, List.of(first, second));
+
+        assertEquals("Album Title", result.getTitle());
+        verify(albumRepository).save(argThat(album -> album.getImages().equals(Set.of("first-key", "second-key"))));
+    }
+
+    @Test
+    void create_ShouldLeaveUploadedImagesToCollector_WhenAnotherUploadFails() {
+        UUID artistId = UUID.randomUUID();
+        Artist artist = Artist.builder().id(artistId).build();
+        AlbumDTO inputDTO = AlbumDTO.builder().artistIds(List.of(artistId)).build();
+        MultipartFile ok = mockImage();
+        MultipartFile broken = mockImage();
+
+        when(artistRepository.findAllById(any())).thenReturn(List.of(artist));
+        when(minioService.uploadFile(ok)).thenReturn("ok-key");
+        when(minioService.uploadFile(broken)).thenThrow(new StorageException("Erro ao fazer upload do arquivo"));
+
+        assertThrows(StorageException.class, () -> albumService.create(inputDTO, List.of(ok, broken)));
+        verify(minioService, never()).deleteFile(any());
+        verify(albumRepository, never()).save(any());
+        verifyNoInteractions(thumbnailService);
+    }
+
+    @Test
+    void create_ShouldLeaveUploadedImagesToCollector_WhenSaveFails() {
+        UUID artistId = UUID.randomUUID();
+        Artist artist = Artist.builder().id(artistId).build();
+        AlbumDTO inputDTO = AlbumDTO.builder().artistIds(List.of(artistId)).build();
+        MultipartFile image = mockImage();
+
+        when(artistRepository.findAllById(any())).thenReturn(List.of(artist));
+        when(minioService.uploadFile(image)).thenReturn("cover-key");
+        when(albumRepository.save(any(Album.class))).thenThrow(new DataIntegrityViolationException("falha"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> albumService.create(inputDTO, List.of(image)));
+        // Outro álbum pode estar reutilizando o mesmo conteúdo: só a coleta de órfãos remove objetos
+        verify(minioService, never()).deleteFile(any());
+        verify(notificationPublisher, never()).publish(any());
     }
 
     @Test
@@ -143,6 +227,29 @@ class AlbumServiceImplTest {
         assertNotNull(result);
         assertEquals("Title", result.getTitle());
         assertTrue(result.getCoverUrls().contains("http://url"));
+        assertNull(result.getThumbnailUrls());
+        verify(minioService, never()).getThumbnailUrl(any(), anyInt());
+    }
+
+    @Test
+    void findById_ShouldExposeThumbnailsOnlyForGeneratedCovers() {
+        UUID id = UUID.randomUUID();
+        Album album = Album.builder()
+                .id(id)
+                .title("Title")
+                .artists(Set.of())
+                .images(Set.of("gerada", "pendente"))
+                .build();
+
+        when(albumRepository.findById(id)).thenReturn(Optional.of(album));
+        when(thumbnailService.withThumbnails(Set.of("gerada", "pendente"))).thenReturn(Set.of("gerada"));
+        when(minioService.getThumbnailUrl(eq("gerada"), anyInt()))
+                .thenAnswer(invocation -> "http://thumb/" + invocation.getArgument(1));
+
+        AlbumDTO result = albumService.findById(id);
+
+        assertEquals(Map.of(512, List.of("http://thumb/512"), 128, List.of("http://thumb/128")), result.getThumbnailUrls());
+        verify(minioService, never()).getThumbnailUrl(eq("pendente"), anyInt());
     }
 
     @Test
@@ -155,7 +262,8 @@ class AlbumServiceImplTest {
                 .artists(Set.of(artist))
                 .build();
 
-        when(albumRepository.findAll(pageable)).thenReturn(new PageImpl<>(List.of(album)));
+        when(albumRepository.findAllIds(pageable)).thenReturn(new PageImpl<>(List.of(album.getId())));
+        when(albumRepository.findAllWithArtistsAndImagesByIdIn(List.of(album.getId()))).thenReturn(List.of(album));
 
         Page<AlbumDTO> result = albumService.findAll(null, null, null, pageable);
 
@@ -168,8 +276,9 @@ class AlbumServiceImplTest {
         Artist artist = Artist.builder().id(UUID.randomUUID()).name("Artist").build();
         Album album = Album.builder().id(UUID.randomUUID()).title("Harakiri").artists(Set.of(artist)).build();
 
-        when(albumRepository.findByTitleContainingIgnoreCase("Hara", pageable))
-                .thenReturn(new PageImpl<>(List.of(album)));
+        when(albumRepository.findIdsByTitleContainingIgnoreCase("Hara", pageable))
+                .thenReturn(new PageImpl<>(List.of(album.getId())));
+        when(albumRepository.findAllWithArtistsAndImagesByIdIn(List.of(album.getId()))).thenReturn(List.of(album));
 
         Page<AlbumDTO> result = albumService.findAll("Hara", null, null, pageable);
 
@@ -183,14 +292,26 @@ class AlbumServiceImplTest {
         Artist artist = Artist.builder().id(UUID.randomUUID()).name("Band").band(true).build();
         Album album = Album.builder().id(UUID.randomUUID()).title("Album").artists(Set.of(artist)).build();
 
-        when(albumRepository.findByArtistType(true, pageable))
-                .thenReturn(new PageImpl<>(List.of(album)));
+        when(albumRepository.findIdsByArtistType(true, pageable))
+                .thenReturn(new PageImpl<>(List.of(album.getId())));
+        when(albumRepository.findAllWithArtistsAndImagesByIdIn(List.of(album.getId()))).thenReturn(List.of(album));
 
         Page<AlbumDTO> result = albumService.findAll(null, null, true, pageable);
 
         assertEquals(1, result.getTotalElements());
     }
 
+    @Test
+    void findAll_ShouldSkipFetch_WhenPageIsEmpty() {
+        Pageable pageable = Pageable.unpaged();
+        when(albumRepository.findAllIds(pageable)).thenReturn(new PageImpl<>(List.of()));
+
+        Page<AlbumDTO> result = albumService.findAll(null, null, null, pageable);
+
+        assertTrue(result.isEmpty());
+        verify(albumRepository, never()).findAllWithArtistsAndImagesByIdIn(any());
+    }
+
     @Test
     void update_ShouldReturnUpdatedAlbum_WhenFound() {
         UUID albumId = UUID.randomUUID();
@@ -211,13 +332,16 @@ class AlbumServiceImplTest {
 
         when(albumRepository.findById(albumId)).thenReturn(Optional.of(existingAlbum));
         when(artistRepository.findAllById(List.of(artistId))).thenReturn(List.of(artist));
-        when(albumRepository.save(any(Album.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(albumRepository.saveAndFlush(any(Album.class))).thenAnswer(inv -> inv.getArgument(0));
 
         AlbumDTO result = albumService.update(albumId, updateDTO);
 
         assertNotNull(result);
         assertEquals("New Title", result.getTitle());
         assertEquals(2023, result.getYear());
+        // Só os campos alterados; artistas iguais não entram no evento
+        verify(notificationPublisher).publish(argThat(event -> event.getType() == AlbumChangeEvent.Type.UPDATED
+                && event.getChanges().equals(Map.of("title", "New Title", "year", 2023))));
     }
 
     @Test
@@ -233,20 +357,46 @@ class AlbumServiceImplTest {
     @Test
     void delete_ShouldCallRepository_WhenAlbumExists() {
         UUID albumId = UUID.randomUUID();
-        when(albumRepository.existsById(albumId)).thenReturn(true);
+        when(albumRepository.findVersionById(albumId)).thenReturn(Optional.of(2L));
+        when(albumRepository.deleteByIdAndVersion(albumId, 2L)).thenReturn(1);
+
+        albumService.delete(albumId);
+
+        verify(albumRepository).deleteByIdAndVersion(albumId, 2L);
+        verify(notificationPublisher).publish(argThat(event -> event.getType() == AlbumChangeEvent.Type.DELETED
+                && event.getId().equals(albumId) && event.getVersion() == 2L && event.getChanges() == null));
+    }
+
+    @Test
+    void delete_ShouldFailWithoutPublishing_WhenAlbumChangedSinceRead() {
+        UUID albumId = UUID.randomUUID();
+        when(albumRepository.findVersionById(albumId)).thenReturn(Optional.of(2L));
+        when(albumRepository.deleteByIdAndVersion(albumId, 2L)).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> albumService.delete(albumId));
+        verifyNoInteractions(notificationPublisher);
+    }
+
+    @Test
+    void delete_ShouldLeaveCoversToCollector() {
+        UUID albumId = UUID.randomUUID();
+        when(albumRepository.findVersionById(albumId)).thenReturn(Optional.of(0L));
+        when(albumRepository.deleteByIdAndVersion(albumId, 0L)).thenReturn(1);
 
         albumService.delete(albumId);
 
-        verify(albumRepository).deleteById(albumId);
+        verify(albumRepository).deleteByIdAndVersion(albumId, 0L);
+        verifyNoInteractions(minioService);
     }
 
     @Test
     void delete_ShouldThrowException_WhenAlbumNotFound() {
         UUID albumId = UUID.randomUUID();
-        when(albumRepository.existsById(albumId)).thenReturn(false);
+        when(albumRepository.findVersionById(albumId)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> albumService.delete(albumId));
-        verify(albumRepository, never()).deleteById(any());
+        verify(albumRepository, never()).deleteByIdAndVersion(any(), any());
+        verifyNoInteractions(notificationPublisher);
     }
 
     @Test
@@ -264,22 +414,29 @@ class AlbumServiceImplTest {
         when(file.getContentType()).thenReturn("image/png");
         when(file.getSize()).thenReturn(1024L);
 
+        when(albumRepository.existsById(albumId)).thenReturn(true);
         when(albumRepository.findById(albumId)).thenReturn(Optional.of(album));
         when(minioService.uploadFile(file)).thenReturn("new-cover-key");
+        when(albumRepository.saveAndFlush(album)).thenReturn(album);
+        runTransactionsInline();
 
         albumService.addCovers(albumId, List.of(file));
 
-        verify(minioService).uploadFile(file);
-        verify(albumRepository).save(album);
+        // O álbum só é carregado depois do upload, dentro da transação curta
+        InOrder order = inOrder(minioService, transactionTemplate, albumRepository);
+        order.verify(minioService).uploadFile(file);
+        order.verify(transactionTemplate).execute(any());
+        order.verify(albumRepository).findById(albumId);
+        order.verify(albumRepository).saveAndFlush(album);
         assertTrue(album.getImages().contains("new-cover-key"));
+        verify(notificationPublisher).publish(argThat(event -> event.getChanges().equals(Map.of("coverCount", 1))));
     }
 
     @Test
     void addCovers_ShouldThrowException_WhenNoFilesProvided() {
         UUID albumId = UUID.randomUUID();
-        Album album = Album.builder().id(albumId).artists(Set.of()).build();
 
-        when(albumRepository.findById(albumId)).thenReturn(Optional.of(album));
+        when(albumRepository.existsById(albumId)).thenReturn(true);
 
         assertThrows(BusinessException.class, () -> albumService.addCovers(albumId, List.of()));
     }
@@ -287,15 +444,81 @@ class AlbumServiceImplTest {
     @Test
     void addCovers_ShouldThrowException_WhenFileNotImage() {
         UUID albumId = UUID.randomUUID();
-        Album album = Album.builder().id(albumId).artists(Set.of()).images(new java.util.HashSet<>()).build();
         MultipartFile file = mock(MultipartFile.class);
 
-        when(albumRepository.findById(albumId)).thenReturn(Optional.of(album));
+        when(albumRepository.existsById(albumId)).thenReturn(true);
         when(file.getContentType()).thenReturn("application/pdf");
 
         assertThrows(BusinessException.class, () -> albumService.addCovers(albumId, List.of(file)));
     }
 
+    @Test
+    void createCoverUploadUrls_ShouldReturnKeysUnderAlbumPrefix() {
+        UUID albumId = UUID.randomUUID();
+        Album album = Album.builder().id(albumId).artists(Set.of()).build();
+        Instant expiresAt = Instant.now();
+
+        when(albumRepository.findById(albumId)).thenReturn(Optional.of(album));
+        when(minioService.getPresignedUploadUrl(any()))
+                .thenReturn(AlbumCoverDTO.builder().url("https://example.com/put").expiresAt(expiresAt).build());
+
+        List<CoverUploadUrlDTO> result = albumService.createCoverUploadUrls(albumId, List.of("capa frente.png"));
+
+        assertEquals(1, result.size());
+        assertTrue(result.get(0).getKey().startsWith("albums/" + albumId + "/"));
+        assertTrue(result.get(0).getKey().endsWith("_capa_frente.png"));
+        assertEquals("https://example.com/put", result.get(0).getUploadUrl());
+        assertEquals(expiresAt, result.get(0).getExpiresAt());
+        verify(minioService).getPresignedUploadUrl(result.get(0).getKey());
+    }
+
+    @Test
+    void commitCovers_ShouldAddKeys_WhenObjectsAreValidImages() {
+        UUID albumId = UUID.randomUUID();
+        Album album = Album.builder().id(albumId).artists(Set.of()).images(new java.util.HashSet<>()).build();
+        String key = "albums/" + albumId + "/uuid_capa.png";
+
+        when(albumRepository.existsById(albumId)).thenReturn(true);
+        when(albumRepository.findById(albumId)).thenReturn(Optional.of(album));
+        when(minioService.statFile(key)).thenReturn(Optional.of(new MinioService.StoredObject(1024L, "image/png")));
+        when(albumRepository.saveAndFlush(album)).thenReturn(album);
+        runTransactionsInline();
+
+        albumService.commitCovers(albumId, List.of(key));
+
+        assertTrue(album.getImages().contains(key));
+        InOrder order = inOrder(minioService, albumRepository);
+        order.verify(minioService).statFile(key);
+        order.verify(albumRepository).findById(albumId);
+        order.verify(albumRepository).saveAndFlush(album);
+    }
+
+    @Test
+    void commitCovers_ShouldThrowException_WhenKeyBelongsToAnotherAlbum() {
+        UUID albumId = UUID.randomUUID();
+
+        when(albumRepository.existsById(albumId)).thenReturn(true);
+
+        List<String> keys = List.of("albums/" + UUID.randomUUID() + "/uuid_capa.png");
+        assertThrows(BusinessException.class, () -> albumService.commitCovers(albumId, keys));
+        verify(minioService, never()).statFile(any());
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void commitCovers_ShouldDeleteObjectAndThrow_WhenImageTooLarge() {
+        UUID albumId = UUID.randomUUID();
+        String key = "albums/" + albumId + "/uuid_capa.png";
+
+        when(albumRepository.existsById(albumId)).thenReturn(true);
+        when(minioService.statFile(key)).thenReturn(Optional.of(new MinioService.StoredObject(10 * 1024 * 1024L, "image/png")));
+
+        List<String> keys = List.of(key);
+        assertThrows(BusinessException.class, () -> albumService.commitCovers(albumId, keys));
+        verify(minioService).deleteFile(key);
+        verifyNoInteractions(transactionTemplate);
+    }
+
     @Test
     void getCoverUrls_ShouldReturnPresignedUrls_WhenImagesExist() {
         UUID albumId = UUID.randomUUID();
@@ -335,4 +558,17 @@ class AlbumServiceImplTest {
 
         assertTrue(urls.isEmpty());
     }
+
+    private MultipartFile mockImage() {
+        MultipartFile image = mock(MultipartFile.class);
+        when(image.getContentType()).thenReturn("image/png");
+        when(image.getSize()).thenReturn(1024L);
+        return image;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
 }
@@ -6,6 +6,7 @@ import com.wendrewnick.musicmanager.entity.User;
 import com.wendrewnick.musicmanager.exception.InvalidRefreshTokenException;
 import com.wendrewnick.musicmanager.repository.UserRepository;
 import com.wendrewnick.musicmanager.security.JwtService;
+import com.wendrewnick.musicmanager.security.TokenVersionCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -34,6 +35,9 @@ class AuthServiceImplTest {
     @Mock
     private AuthenticationManager authenticationManager;
 
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -110,4 +114,17 @@ class AuthServiceImplTest {
         assertThrows(InvalidRefreshTokenException.class,
                 () -> authService.refreshToken("expired-token"));
     }
+
+    @Test
+    void logout_ShouldBumpTokenVersion_AndRevokeLocally() {
+        User user = User.builder().id(UUID.randomUUID()).username("admin").password("encoded").tokenVersion(2).build();
+
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+
+        authService.logout("admin");
+
+        assertEquals(3, user.getTokenVersion());
+        verify(userRepository).save(user);
+        verify(tokenVersionCache).revoke("admin", 3);
+    }
 }
@@ -0,0 +1,167 @@
+package com.wendrewnick.musicmanager.service.impl;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.Directive;
+import io.minio.MinioClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.PutObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MinioServiceImplTest {
+
+    // sha256("capa")
+    private static final String CONTENT_KEY = "covers/sha256/b398eff2ffc06d183291fb72c0867eb002847dde74fd7ce7b8290f672a6816dd";
+
+    @Mock
+    private MinioClient minioClient;
+
+    @Mock
+    private MinioClient minioSignerClient;
+
+    private MinioServiceImpl minioService;
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        minioService = new MinioServiceImpl(minioClient, minioSignerClient, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(minioService, "bucketName", "music-covers");
+        ReflectionTestUtils.setField(minioService, "presignedUrlCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(minioService, "presignedUrlCacheTtlMinutes", 20L);
+        ReflectionTestUtils.setField(minioService, "gcGracePeriodHours", 24L);
+        ReflectionTestUtils.setField(minioService, "ticker", (Ticker) nanos::get);
+        minioService.initPresignedUrlCache();
+    }
+
+    @Test
+    void getPresignedUrl_ShouldSignOnce_WhenCached() throws Exception {
+        when(minioSignerClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                .thenReturn("https://example.com/a?sig=1");
+
+        String first = minioService.getPresignedUrl("covers/a");
+        String second = minioService.getPresignedUrl("covers/a");
+
+        assertEquals(first, second);
+        verify(minioSignerClient, times(1)).getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class));
+    }
+
+    @Test
+    void getPresignedUrl_ShouldNeverServeUrlPastItsExpiry() throws Exception {
+        when(minioSignerClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class)))
+                .thenReturn("https://example.com/a?sig=1", "https://example.com/a?sig=2");
+
+        String first = minioService.getPresignedUrl("covers/a");
+        ArgumentCaptor<GetPresignedObjectUrlArgs> signed = ArgumentCaptor.forClass(GetPresignedObjectUrlArgs.class);
+        verify(minioSignerClient).getPresignedObjectUrl(signed.capture());
+        long urlExpiryNanos = TimeUnit.SECONDS.toNanos(signed.getValue().expiry());
+
+        // Ainda dentro do TTL do cache: mesma URL
+        nanos.set(TimeUnit.MINUTES.toNanos(20) - 1);
+        assertEquals(first, minioService.getPresignedUrl("covers/a"));
+
+        // Passado o TTL do cache, mas antes da URL expirar: o cache já precisa ter assinado outra
+        nanos.set(TimeUnit.MINUTES.toNanos(20));
+        assertTrue(nanos.get() < urlExpiryNanos);
+        assertEquals("https://example.com/a?sig=2", minioService.getPresignedUrl("covers/a"));
+    }
+
+    @Test
+    void initPresignedUrlCache_ShouldFail_WhenCacheTtlNotShorterThanUrlExpiry() {
+        MinioServiceImpl service = new MinioServiceImpl(minioClient, minioSignerClient, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "presignedUrlCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(service, "presignedUrlCacheTtlMinutes", 30L);
+
+        assertThrows(IllegalStateException.class, service::initPresignedUrlCache);
+    }
+
+    @Test
+    void uploadFile_ShouldPutUnderContentKey_WhenContentIsNew() throws Exception {
+        MockMultipartFile file = spy(new MockMultipartFile("images", "capa.png", "image/png", "capa".getBytes()));
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> consume(invocation.getArgument(0)));
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenThrow(notFound());
+
+        String key = minioService.uploadFile(file);
+
+        assertEquals(CONTENT_KEY, key);
+        // Hash antes do envio, direto na chave do conteúdo: sem objeto temporário nem cópia no servidor
+        verify(minioClient).putObject(argThat(args -> args.object().equals(CONTENT_KEY)));
+        verify(minioClient, never()).copyObject(any());
+        verify(minioClient, never()).removeObject(any());
+        verify(file, times(2)).getInputStream();
+    }
+
+    @Test
+    void uploadFile_ShouldSkipPut_WhenContentAlreadyStored() throws Exception {
+        MockMultipartFile file = spy(new MockMultipartFile("images", "b.png", "image/png", "capa".getBytes()));
+        StatObjectResponse stored = storedAt(ZonedDateTime.now().minusHours(1));
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stored);
+
+        assertEquals(CONTENT_KEY, minioService.uploadFile(file));
+
+        // Conteúdo repetido custa um stat: nenhum byte enviado, nada copiado
+        verify(minioClient, never()).putObject(any());
+        verify(minioClient, never()).copyObject(any());
+        verify(file, times(1)).getInputStream();
+    }
+
+    @Test
+    void uploadFile_ShouldRefreshReusedObject_WhenNearGcGracePeriod() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("images", "b.png", "image/png", "capa".getBytes());
+        StatObjectResponse stored = storedAt(ZonedDateTime.now().minusHours(20));
+        when(stored.contentType()).thenReturn("image/png");
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stored);
+
+        assertEquals(CONTENT_KEY, minioService.uploadFile(file));
+
+        // Cópia sobre o próprio objeto: renova o lastModified para a coleta de órfãos não removê-lo antes do commit
+        ArgumentCaptor<CopyObjectArgs> copy = ArgumentCaptor.forClass(CopyObjectArgs.class);
+        verify(minioClient).copyObject(copy.capture());
+        assertEquals(CONTENT_KEY, copy.getValue().object());
+        assertEquals(CONTENT_KEY, copy.getValue().source().object());
+        assertEquals(Directive.REPLACE, copy.getValue().metadataDirective());
+        assertEquals("image/png", copy.getValue().headers().get("Content-Type").iterator().next());
+        verify(minioClient, never()).putObject(any());
+    }
+
+    private static StatObjectResponse storedAt(ZonedDateTime lastModified) {
+        StatObjectResponse stored = mock(StatObjectResponse.class);
+        when(stored.lastModified()).thenReturn(lastModified);
+        return stored;
+    }
+
+    // O cliente MinIO de verdade lê o stream inteiro durante o putObject
+    private static ObjectWriteResponse consume(PutObjectArgs args) throws IOException {
+        args.stream().transferTo(OutputStream.nullOutputStream());
+        return null;
+    }
+
+    private static ErrorResponseException notFound() {
+        return new ErrorResponseException(
+                new ErrorResponse("NoSuchKey", "Object does not exist", "music-covers", null, null, null, null),
+                null, null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.wendrewnick.musicmanager.service.impl;
+
+import com.wendrewnick.musicmanager.exception.StorageException;
+import com.wendrewnick.musicmanager.repository.CoverThumbnailRepository;
+import com.wendrewnick.musicmanager.service.MinioService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import okhttp3.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ThumbnailServiceImplTest {
+
+    @Mock
+    private MinioClient minioClient;
+
+    @Mock
+    private MinioService minioService;
+
+    @Mock
+    private CoverThumbnailRepository coverThumbnailRepository;
+
+    private ThumbnailServiceImpl thumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        thumbnailService = new ThumbnailServiceImpl(minioClient, minioService, coverThumbnailRepository,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(thumbnailService, "bucketName", "music-covers");
+    }
+
+    @Test
+    void scaleToFit_ShouldKeepAspectRatioWithinBox() {
+        BufferedImage source = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage thumbnail = ThumbnailServiceImpl.scaleToFit(source, 512);
+
+        assertEquals(512, thumbnail.getWidth());
+        assertEquals(256, thumbnail.getHeight());
+        assertEquals(BufferedImage.TYPE_INT_RGB, thumbnail.getType());
+    }
+
+    @Test
+    void scaleToFit_ShouldNotUpscaleSmallImages() {
+        BufferedImage source = new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage thumbnail = ThumbnailServiceImpl.scaleToFit(source, 128);
+
+        assertEquals(100, thumbnail.getWidth());
+        assertEquals(80, thumbnail.getHeight());
+    }
+
+    @Test
+    void generate_ShouldStoreThumbnailsUnderDerivedKeys() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB), "png", png);
+        when(minioService.statFile("thumbnails/128/cover.png")).thenReturn(Optional.empty());
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(new GetObjectResponse(
+                Headers.of(), "music-covers", null, "cover.png", new ByteArrayInputStream(png.toByteArray())));
+
+        thumbnailService.generate("cover.png");
+
+        ArgumentCaptor<PutObjectArgs> uploads = ArgumentCaptor.forClass(PutObjectArgs.class);
+        verify(minioClient, times(2)).putObject(uploads.capture());
+        List<String> keys = uploads.getAllValues().stream().map(PutObjectArgs::object).toList();
+        assertEquals(List.of("thumbnails/512/cover.png", "thumbnails/128/cover.png"), keys);
+        assertEquals("image/jpeg", uploads.getValue().contentType());
+
+        BufferedImage small = ImageIO.read(uploads.getValue().stream());
+        assertEquals(128, small.getWidth());
+        assertEquals(96, small.getHeight());
+        verify(coverThumbnailRepository).markGenerated("cover.png");
+    }
+
+    @Test
+    void generate_ShouldSkipUnsupportedFormats() throws Exception {
+        when(minioService.statFile("thumbnails/128/cover.png")).thenReturn(Optional.empty());
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(new GetObjectResponse(
+                Headers.of(), "music-covers", null, "cover.png", new ByteArrayInputStream("não é imagem".getBytes())));
+
+        thumbnailService.generate("cover.png");
+
+        verify(minioClient, never()).putObject(any());
+        verifyNoInteractions(coverThumbnailRepository);
+    }
+
+    @Test
+    void generate_ShouldSkip_WhenThumbnailsAlreadyExist() throws Exception {
+        when(minioService.statFile("thumbnails/128/cover.png"))
+                .thenReturn(Optional.of(new MinioService.StoredObject(2048L, "image/jpeg")));
+
+        thumbnailService.generate("cover.png");
+
+        verifyNoInteractions(minioClient);
+        verify(coverThumbnailRepository).markGenerated("cover.png");
+    }
+
+    @Test
+    void generate_ShouldNotMarkCover_WhenUploadFails() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1600, 1200, BufferedImage.TYPE_INT_RGB), "png", png);
+        when(minioService.statFile("thumbnails/128/cover.png")).thenReturn(Optional.empty());
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(new GetObjectResponse(
+                Headers.of(), "music-covers", null, "cover.png", new ByteArrayInputStream(png.toByteArray())));
+        when(minioClient.putObject(any())).thenThrow(new IOException("MinIO fora do ar"));
+
+        assertThrows(StorageException.class, () -> thumbnailService.generate("cover.png"));
+
+        verifyNoInteractions(coverThumbnailRepository);
+    }
+}